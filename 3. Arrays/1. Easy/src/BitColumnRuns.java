@@ -0,0 +1,206 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class BitColumnRuns {
+
+    // -------------------------------------------------------------------
+    // Idea: MaxConsecutiveOnes stores one flag per 32-bit int. Packing 64
+    // flags into one long is 32x smaller, and whole runs inside a word can
+    // be measured with Long.numberOfTrailingZeros / numberOfLeadingZeros
+    // instead of looking at every bit.
+    //
+    // Bit i of the column lives in words[i >>> 6] at bit (i & 63)
+    // (least significant bit first).
+    //
+    // For parallel queries every chunk of words is described by a Summary
+    // (length, prefix ones, suffix ones, best run, all ones) and neighbouring
+    // summaries are merged left to right.
+    // -------------------------------------------------------------------
+    static final int CHUNK_WORDS = 1 << 12;
+
+    private long[] words;
+    private long size;
+
+    // Maintained by append so the answer is always current
+    private long currentRun; // ones at the end of the column
+    private long bestRun;
+
+    public BitColumnRuns() {
+        words = new long[16];
+    }
+
+    // Build from the int[] representation used by MaxConsecutiveOnes
+    public static BitColumnRuns fromInts(int[] nums) {
+        BitColumnRuns col = new BitColumnRuns();
+        for (int num : nums) col.append(num == 1);
+        return col;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean get(long i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        return (words[(int) (i >>> 6)] >>> (i & 63) & 1L) != 0;
+    }
+
+    // -------------------------------------------------------------------
+    // Append one flag
+    // Time Complexity: O(1) amortized
+    // -------------------------------------------------------------------
+    public void append(boolean bit) {
+        int w = (int) (size >>> 6);
+        if (w == words.length) words = Arrays.copyOf(words, words.length * 2);
+        if (bit) {
+            words[w] |= 1L << (size & 63);
+            currentRun++;
+            if (currentRun > bestRun) bestRun = currentRun;
+        } else {
+            currentRun = 0;
+        }
+        size++;
+    }
+
+    // -------------------------------------------------------------------
+    // Append 64 flags at once. Only valid when size is a multiple of 64.
+    // Time Complexity: O(1) amortized (word tricks, not a bit loop)
+    // -------------------------------------------------------------------
+    public void appendWord(long bits) {
+        if ((size & 63) != 0) throw new IllegalStateException("appendWord needs a word-aligned size, size = " + size);
+        int w = (int) (size >>> 6);
+        if (w == words.length) words = Arrays.copyOf(words, words.length * 2);
+        words[w] = bits;
+        size += 64;
+
+        Summary s = summarizeWord(bits, 64);
+        long joined = currentRun + s.prefix;
+        bestRun = Math.max(bestRun, Math.max(joined, s.best));
+        currentRun = s.allOnes ? joined : s.suffix;
+    }
+
+    // Answer maintained incrementally by append/appendWord
+    public long longestRun() {
+        return bestRun;
+    }
+
+    // -------------------------------------------------------------------
+    // Summary of a range of bits
+    // -------------------------------------------------------------------
+    static final class Summary {
+        final long length, prefix, suffix, best;
+        final boolean allOnes;
+
+        Summary(long length, long prefix, long suffix, long best) {
+            this.length = length;
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.best = best;
+            this.allOnes = prefix == length;
+        }
+
+        // this = left part, right = the part right after it
+        Summary merge(Summary right) {
+            if (length == 0) return right;
+            if (right.length == 0) return this;
+            long prefix = allOnes ? length + right.prefix : this.prefix;
+            long suffix = right.allOnes ? right.length + this.suffix : right.suffix;
+            long best = Math.max(Math.max(this.best, right.best), this.suffix + right.prefix);
+            return new Summary(length + right.length, prefix, suffix, best);
+        }
+    }
+
+    // -------------------------------------------------------------------
+    // Summary of the lowest `valid` bits of one word
+    // Time Complexity: O(number of runs in the word), at most 32
+    // -------------------------------------------------------------------
+    static Summary summarizeWord(long w, int valid) {
+        if (valid < 64) w &= (1L << valid) - 1; // drop bits past the end
+        long full = valid == 64 ? -1L : (1L << valid) - 1;
+        if (w == full) return new Summary(valid, valid, valid, valid);
+
+        int prefix = Long.numberOfTrailingZeros(~w);
+        // ones ending at bit (valid - 1): shift them to the top first
+        int suffix = Long.numberOfLeadingZeros(~(w << (64 - valid)));
+
+        int best = 0;
+        long x = w;
+        while (x != 0) {
+            x >>>= Long.numberOfTrailingZeros(x); // skip zeros
+            int run = Long.numberOfTrailingZeros(~x); // count ones
+            if (run > best) best = run;
+            x = run == 64 ? 0 : x >>> run;
+        }
+        return new Summary(valid, prefix, suffix, best);
+    }
+
+    // Summary of words [fromWord, toWord)
+    private Summary summarizeWords(int fromWord, int toWord) {
+        Summary acc = new Summary(0, 0, 0, 0);
+        int lastWord = (int) ((size - 1) >>> 6);
+        for (int i = fromWord; i < toWord; i++) {
+            int valid = i == lastWord && (size & 63) != 0 ? (int) (size & 63) : 64;
+            acc = acc.merge(summarizeWord(words[i], valid));
+        }
+        return acc;
+    }
+
+    // -------------------------------------------------------------------
+    // Full recomputation of the longest run, chunks in parallel
+    // Time Complexity: O(n / 64 / p)
+    // Space Complexity: O(chunks)
+    // -------------------------------------------------------------------
+    public long longestRunParallel() {
+        if (size == 0) return 0;
+        int nWords = (int) ((size + 63) >>> 6);
+        int chunks = (nWords + CHUNK_WORDS - 1) / CHUNK_WORDS;
+        Summary[] parts = new Summary[chunks];
+        IntStream.range(0, chunks).parallel().forEach(c ->
+                parts[c] = summarizeWords(c * CHUNK_WORDS, Math.min(nWords, (c + 1) * CHUNK_WORDS)));
+
+        Summary total = parts[0];
+        for (int c = 1; c < chunks; c++) total = total.merge(parts[c]);
+        return total.best;
+    }
+
+    // -------------------------------------------------------------------
+    // Main method
+    // -------------------------------------------------------------------
+    public static void main(String[] args) {
+        int[] nums = {1, 1, 0, 1, 1, 1};
+        BitColumnRuns small = fromInts(nums);
+        System.out.println("Input: " + Arrays.toString(nums));
+        System.out.println("Incremental longest run: " + small.longestRun()
+                + ", parallel: " + small.longestRunParallel()
+                + ", MaxConsecutiveOnes: " + MaxConsecutiveOnes.maxConsecutiveOnes(nums));
+
+        // Large column: mostly random words with a few long runs planted
+        int nWords = 8_000_000; // 512M bits = 64 MB packed (2 GB as int[])
+        Random rnd = new Random(11);
+        BitColumnRuns col = new BitColumnRuns();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < nWords; i++) {
+            long w = rnd.nextLong() | rnd.nextLong(); // ~75% ones
+            if (i % 1_000_000 == 17) w = -1L;         // all-ones words join runs
+            col.appendWord(w);
+        }
+        long appendNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        long par = col.longestRunParallel();
+        long parNs = System.nanoTime() - t0;
+
+        // Bit-by-bit reference on a prefix, like MaxConsecutiveOnes
+        int check = 1 << 20;
+        int[] asInts = new int[check];
+        for (int i = 0; i < check; i++) asInts[i] = col.get(i) ? 1 : 0;
+        BitColumnRuns prefixCol = fromInts(asInts);
+
+        System.out.println("\n" + col.size() + " bits in " + (nWords * 8L >> 20) + " MB");
+        System.out.println("appendWord (incremental answer " + col.longestRun() + "): " + appendNs / 1_000_000 + " ms");
+        System.out.println("parallel recompute (answer " + par + "): " + parNs / 1_000_000 + " ms");
+        System.out.println("Prefix of " + check + " bits: packed " + prefixCol.longestRunParallel()
+                + " vs int[] " + MaxConsecutiveOnes.maxConsecutiveOnes(asInts));
+    }
+}
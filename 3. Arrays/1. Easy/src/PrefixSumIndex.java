@@ -0,0 +1,212 @@
+import java.util.Arrays;
+import java.util.Random;
+
+public class PrefixSumIndex {
+
+    // -------------------------------------------------------------------
+    // Idea: LongestSubarraySumK / SubArraySumK rebuild prefix sums and a
+    // HashMap<Integer, Integer> on every call. When the array is fixed and
+    // only k changes, the expensive part can be built once:
+    //
+    //   prefix[i] = a[0] + ... + a[i-1]   (long, so no overflow)
+    //   sum(l..r) = prefix[r + 1] - prefix[l]
+    //
+    // - firstIndex : prefix value -> first position it occurs (k independent)
+    // - longest(k) : for each j look up prefix[j] - k in firstIndex
+    // - count(k)   : classic running frequency map, but the map is a reused
+    //                primitive long->int table that clears in O(1)
+    // -------------------------------------------------------------------
+    private final long[] prefix;
+    private final LongIntMap firstIndex;
+    private final LongIntMap scratch; // reused by count(k)
+
+    // Build Time Complexity: O(N)
+    // Space Complexity: O(N)
+    public PrefixSumIndex(int[] arr) {
+        int n = arr.length;
+        prefix = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            prefix[i + 1] = prefix[i] + arr[i];
+        }
+
+        firstIndex = new LongIntMap(n + 1);
+        for (int i = 0; i <= n; i++) {
+            firstIndex.putIfAbsent(prefix[i], i); // earliest occurrence wins
+        }
+        scratch = new LongIntMap(n + 1);
+    }
+
+    public int length() {
+        return prefix.length - 1;
+    }
+
+    // -------------------------------------------------------------------
+    // Sum of arr[l..r] (both inclusive)
+    // Time Complexity: O(1)
+    // -------------------------------------------------------------------
+    public long rangeSum(int l, int r) {
+        if (l < 0 || r >= length() || l > r + 1) {
+            throw new IndexOutOfBoundsException("Range [" + l + ", " + r + "] out of bounds for length " + length());
+        }
+        return prefix[r + 1] - prefix[l];
+    }
+
+    // -------------------------------------------------------------------
+    // Number of subarrays with sum exactly k
+    // Time Complexity: O(N) per query, no allocation
+    // Space Complexity: O(1) extra (map is reused)
+    // -------------------------------------------------------------------
+    public long countSubarrays(long k) {
+        scratch.clear();
+        long count = 0;
+        for (int j = 0; j < prefix.length; j++) {
+            count += scratch.get(prefix[j] - k, 0);
+            scratch.addTo(prefix[j], 1);
+        }
+        return count;
+    }
+
+    // -------------------------------------------------------------------
+    // Longest subarray with sum k, as {start, end} (inclusive) or null
+    // Uses the precomputed first-occurrence table, so nothing is built here.
+    // Time Complexity: O(N) per query
+    // Space Complexity: O(1)
+    // -------------------------------------------------------------------
+    public int[] longestSubarray(long k) {
+        int bestLen = 0, bestStart = -1;
+        for (int j = 1; j < prefix.length; j++) {
+            int i = firstIndex.get(prefix[j] - k, -1);
+            if (i >= 0 && i < j && j - i > bestLen) {
+                bestLen = j - i;
+                bestStart = i;
+            }
+        }
+        return bestStart < 0 ? null : new int[]{bestStart, bestStart + bestLen - 1};
+    }
+
+    public int longestSubarrayLength(long k) {
+        int[] range = longestSubarray(k);
+        return range == null ? 0 : range[1] - range[0] + 1;
+    }
+
+    // -------------------------------------------------------------------
+    // Open-addressing long -> int map with linear probing.
+    // Capacity is fixed at construction (no resize needed, the index knows
+    // its maximum number of keys). A generation stamp per slot makes
+    // clear() O(1): a slot is live only if its stamp equals the current one.
+    // -------------------------------------------------------------------
+    static final class LongIntMap {
+        private final long[] keys;
+        private final int[] values;
+        private final int[] stamps;
+        private final int mask;
+        private int generation = 1;
+
+        static final int MAX_CAPACITY = 1 << 30;
+
+        // Power of two with room for expected keys at load factor <= 0.5, computed
+        // in long so it cannot wrap (same rule as PrefixHashIndex.capacityFor).
+        // Inputs that would need more than MAX_CAPACITY slots are rejected.
+        static int capacityFor(int expected) {
+            if (expected > MAX_CAPACITY / 2) {
+                throw new IllegalArgumentException("At most " + MAX_CAPACITY / 2 + " keys, got " + expected);
+            }
+            return (int) (Long.highestOneBit(Math.max(2L, expected) * 2 - 1) << 1);
+        }
+
+        LongIntMap(int maxKeys) {
+            int cap = capacityFor(maxKeys);
+            keys = new long[cap];
+            values = new int[cap];
+            stamps = new int[cap];
+            mask = cap - 1;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        int get(long key, int defaultValue) {
+            for (int s = slot(key); stamps[s] == generation; s = (s + 1) & mask) {
+                if (keys[s] == key) return values[s];
+            }
+            return defaultValue;
+        }
+
+        void putIfAbsent(long key, int value) {
+            int s = slot(key);
+            while (stamps[s] == generation) {
+                if (keys[s] == key) return;
+                s = (s + 1) & mask;
+            }
+            stamps[s] = generation;
+            keys[s] = key;
+            values[s] = value;
+        }
+
+        void addTo(long key, int delta) {
+            int s = slot(key);
+            while (stamps[s] == generation) {
+                if (keys[s] == key) {
+                    values[s] += delta;
+                    return;
+                }
+                s = (s + 1) & mask;
+            }
+            stamps[s] = generation;
+            keys[s] = key;
+            values[s] = delta;
+        }
+
+        void clear() {
+            if (++generation == 0) { // wrapped around, reset for real
+                Arrays.fill(stamps, 0);
+                generation = 1;
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------
+    // Main method: compare with LongestSubarraySumK and time many k values
+    // -------------------------------------------------------------------
+    public static void main(String[] args) {
+        int[] a = {-1, 1, 1, 2, -3, 3, 1};
+        PrefixSumIndex index = new PrefixSumIndex(a);
+
+        System.out.println("Input Array: " + Arrays.toString(a));
+        System.out.println("rangeSum(1, 3) = " + index.rangeSum(1, 3));
+        for (int k = -1; k <= 3; k++) {
+            System.out.println("k = " + k
+                    + " -> count = " + index.countSubarrays(k)
+                    + ", longest = " + Arrays.toString(index.longestSubarray(k))
+                    + " (LongestSubarraySumK: " + LongestSubarraySumK.getLongestSubarrayOptimal(a, k) + ")");
+        }
+
+        // Overflow: int prefix sums would wrap here, long sums do not
+        int[] big = {Integer.MAX_VALUE, Integer.MAX_VALUE, 1};
+        System.out.println("\nSum of {MAX, MAX, 1} = " + new PrefixSumIndex(big).rangeSum(0, 2));
+
+        // Many k values against one array
+        int n = 200_000, queries = 200;
+        Random rnd = new Random(7);
+        int[] data = new int[n];
+        for (int i = 0; i < n; i++) data[i] = rnd.nextInt(21) - 10;
+
+        long t0 = System.nanoTime();
+        long checksumOld = 0;
+        for (int q = 0; q < queries; q++) checksumOld += LongestSubarraySumK.getLongestSubarrayOptimal(data, q - 100);
+        long oldNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        PrefixSumIndex idx = new PrefixSumIndex(data);
+        long checksumNew = 0;
+        for (int q = 0; q < queries; q++) checksumNew += idx.longestSubarrayLength(q - 100);
+        long newNs = System.nanoTime() - t0;
+
+        System.out.println("\n" + queries + " longest-subarray queries over n = " + n);
+        System.out.println("LongestSubarraySumK (HashMap per call): " + oldNs / 1_000_000 + " ms");
+        System.out.println("PrefixSumIndex (built once)          : " + newNs / 1_000_000 + " ms");
+        System.out.println("Results agree: " + (checksumOld == checksumNew));
+    }
+}
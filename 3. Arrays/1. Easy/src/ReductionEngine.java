@@ -0,0 +1,340 @@
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class ReductionEngine {
+
+    // -------------------------------------------------------------------
+    // Idea: FindTheSingleNumber (XOR), MissingNumberInArray (XOR / sum) and
+    // FindMissingRepeatingNum (sum + sum of squares) are all one pass that
+    // folds every element into a few accumulators. The fold is associative,
+    // so the input can be split into pieces, reduced in parallel with
+    // ForkJoin, and the partial results merged.
+    //
+    // Accumulators per piece:
+    //   xor   : XOR of all values
+    //   sum   : long sum (n * 2^31 fits in a long for any int[] length)
+    //   sumSq : 128-bit sum of squares (hi, lo) -> never overflows
+    //
+    // The leaf loop runs 4 independent XOR/sum lanes so the CPU can overlap
+    // those dependency chains. The 128-bit square sum stays one serial carry
+    // chain, which also keeps the loop from being vectorized.
+    // -------------------------------------------------------------------
+    static final int LEAF = 1 << 15;
+
+    static final class Result {
+        int xor;
+        long sum;
+        long sqHi, sqLo; // unsigned 128-bit sum of squares
+        long count;
+
+        void addSquare(long sq) {
+            long lo = sqLo + sq;
+            if (Long.compareUnsigned(lo, sqLo) < 0) sqHi++; // carry
+            sqLo = lo;
+        }
+
+        Result merge(Result other) {
+            xor ^= other.xor;
+            sum += other.sum;
+            count += other.count;
+            long lo = sqLo + other.sqLo;
+            sqHi += other.sqHi + (Long.compareUnsigned(lo, sqLo) < 0 ? 1 : 0);
+            sqLo = lo;
+            return this;
+        }
+
+        BigInteger sumOfSquares() {
+            BigInteger hi = BigInteger.valueOf(sqHi).shiftLeft(64);
+            BigInteger lo = new BigInteger(Long.toUnsignedString(sqLo));
+            return hi.add(lo);
+        }
+
+        @Override
+        public String toString() {
+            return "xor=" + xor + ", sum=" + sum + ", sumSq=" + sumOfSquares() + ", count=" + count;
+        }
+    }
+
+    // -------------------------------------------------------------------
+    // Leaf: 4 lanes over an int[]
+    // -------------------------------------------------------------------
+    static Result reduceRange(int[] arr, int from, int to) {
+        Result r = new Result();
+        int x0 = 0, x1 = 0, x2 = 0, x3 = 0;
+        long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            int a = arr[i], b = arr[i + 1], c = arr[i + 2], d = arr[i + 3];
+            x0 ^= a; x1 ^= b; x2 ^= c; x3 ^= d;
+            s0 += a; s1 += b; s2 += c; s3 += d;
+            // each square <= 2^62, two of them <= 2^63 < 2^64 -> safe as an unsigned add
+            r.addSquare((long) a * a + (long) b * b);
+            r.addSquare((long) c * c + (long) d * d);
+        }
+        for (; i < to; i++) {
+            int a = arr[i];
+            x0 ^= a;
+            s0 += a;
+            r.addSquare((long) a * a);
+        }
+        r.xor = x0 ^ x1 ^ x2 ^ x3;
+        r.sum = s0 + s1 + s2 + s3;
+        r.count = to - from;
+        return r;
+    }
+
+    static Result reduceRange(IntBuffer buf, int from, int to) {
+        Result r = new Result();
+        int x = 0;
+        long s = 0;
+        for (int i = from; i < to; i++) {
+            int a = buf.get(i); // absolute get, no shared position
+            x ^= a;
+            s += a;
+            r.addSquare((long) a * a);
+        }
+        r.xor = x;
+        r.sum = s;
+        r.count = to - from;
+        return r;
+    }
+
+    static Result reduceRange(MemorySegment seg, ValueLayout.OfInt layout, long from, long to) {
+        Result r = new Result();
+        int x = 0;
+        long s = 0;
+        for (long i = from; i < to; i++) {
+            int a = seg.getAtIndex(layout, i);
+            x ^= a;
+            s += a;
+            r.addSquare((long) a * a);
+        }
+        r.xor = x;
+        r.sum = s;
+        r.count = to - from;
+        return r;
+    }
+
+    // -------------------------------------------------------------------
+    // ForkJoin splitting
+    // -------------------------------------------------------------------
+    static final class ArrayTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        final int[] arr;
+        final int from, to;
+
+        ArrayTask(int[] arr, int from, int to) {
+            this.arr = arr;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= LEAF) return reduceRange(arr, from, to);
+            int mid = (from + to) >>> 1;
+            ArrayTask left = new ArrayTask(arr, from, mid);
+            left.fork();
+            Result right = new ArrayTask(arr, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    static final class BufferTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        final transient IntBuffer buf;
+        final int from, to;
+
+        BufferTask(IntBuffer buf, int from, int to) {
+            this.buf = buf;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= LEAF) return reduceRange(buf, from, to);
+            int mid = (from + to) >>> 1;
+            BufferTask left = new BufferTask(buf, from, mid);
+            left.fork();
+            Result right = new BufferTask(buf, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    static final class SegmentTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        final transient MemorySegment seg;
+        final transient ValueLayout.OfInt layout;
+        final long from, to;
+
+        SegmentTask(MemorySegment seg, ValueLayout.OfInt layout, long from, long to) {
+            this.seg = seg;
+            this.layout = layout;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= LEAF) return reduceRange(seg, layout, from, to);
+            long mid = (from + to) >>> 1;
+            SegmentTask left = new SegmentTask(seg, layout, from, mid);
+            left.fork();
+            Result right = new SegmentTask(seg, layout, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    // Time Complexity: O(n / p)
+    // Space Complexity: O(log n) task stack
+    public static Result reduce(int[] arr) {
+        return ForkJoinPool.commonPool().invoke(new ArrayTask(arr, 0, arr.length));
+    }
+
+    // Works for heap, direct and MappedByteBuffer-backed buffers alike
+    public static Result reduce(IntBuffer buf) {
+        return ForkJoinPool.commonPool().invoke(new BufferTask(buf, 0, buf.limit()));
+    }
+
+    // Off-heap or mapped memory of any size (long indices, no 2 GB limit).
+    // The segment must be readable from other threads (global or shared arena).
+    public static Result reduce(MemorySegment seg, ByteOrder order) {
+        ValueLayout.OfInt layout = ValueLayout.JAVA_INT_UNALIGNED.withOrder(order);
+        return ForkJoinPool.commonPool().invoke(new SegmentTask(seg, layout, 0, seg.byteSize() / 4));
+    }
+
+    // -------------------------------------------------------------------
+    // Memory-mapped file of 4-byte ints. Mapped as one MemorySegment in a
+    // shared arena so the ForkJoin workers can read it; unmapped on close.
+    // Time Complexity: O(fileSize / 4 / p)
+    // Space Complexity: O(1) heap, pages come from the OS
+    // -------------------------------------------------------------------
+    public static Result reduceFile(Path file, ByteOrder order) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+             Arena arena = Arena.ofShared()) {
+            long size = ch.size() & ~3L; // ignore a trailing partial int
+            MemorySegment map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            return reduce(map, order);
+        }
+    }
+
+    // -------------------------------------------------------------------
+    // Problems on top of the engine
+    // -------------------------------------------------------------------
+
+    // Every number appears twice except one (FindTheSingleNumber)
+    public static int singleNumber(int[] arr) {
+        return reduce(arr).xor;
+    }
+
+    // XOR of 0..n in O(1)
+    static long xorUpTo(long n) {
+        switch ((int) (n & 3)) {
+            case 0: return n;
+            case 1: return 1;
+            case 2: return n + 1;
+            default: return 0;
+        }
+    }
+
+    // Array holds 0..n with one number missing (MissingNumberInArray)
+    public static int missingNumber(Result r) {
+        return (int) (r.xor ^ xorUpTo(r.count));
+    }
+
+    // -------------------------------------------------------------------
+    // Array holds 1..n with one value repeated and one missing
+    // (FindMissingRepeatingNum). Returns {repeating, missing}.
+    //   S  - n(n+1)/2          = R - M
+    //   SQ - n(n+1)(2n+1)/6    = R^2 - M^2 = (R - M)(R + M)
+    // The square sums are exact 128-bit values, so this works for any n
+    // that fits in an int[] or a file.
+    // -------------------------------------------------------------------
+    public static long[] missingAndRepeating(Result r) {
+        BigInteger n = BigInteger.valueOf(r.count);
+        BigInteger expectedSum = n.multiply(n.add(BigInteger.ONE)).shiftRight(1);
+        BigInteger expectedSq = n.multiply(n.add(BigInteger.ONE))
+                .multiply(n.shiftLeft(1).add(BigInteger.ONE)).divide(BigInteger.valueOf(6));
+
+        BigInteger diff = BigInteger.valueOf(r.sum).subtract(expectedSum);   // R - M
+        if (diff.signum() == 0) throw new IllegalArgumentException("No repeating value found");
+        BigInteger total = r.sumOfSquares().subtract(expectedSq).divide(diff); // R + M
+
+        long repeating = total.add(diff).shiftRight(1).longValueExact();
+        long missing = repeating - diff.longValueExact();
+        return new long[]{repeating, missing};
+    }
+
+    // -------------------------------------------------------------------
+    // Main method: cross-check and timing
+    // -------------------------------------------------------------------
+    public static void main(String[] args) throws IOException {
+        int[] pairs = {4, 1, 2, 1, 2};
+        System.out.println("Single number in {4, 1, 2, 1, 2}: " + singleNumber(pairs)
+                + " (FindTheSingleNumber: " + FindTheSingleNumber.getSingleElementOptimal(pairs) + ")");
+
+        int[] missing = {0, 1, 2, 3, 4, 6, 7, 8, 9};
+        System.out.println("Missing number: " + missingNumber(reduce(missing))
+                + " (MissingNumberInArray: " + MissingNumberInArray.missingNumberXOR(missing) + ")");
+
+        long[] rm = missingAndRepeating(reduce(new int[]{3, 1, 2, 5, 3}));
+        System.out.println("{3, 1, 2, 5, 3}: Repeating = " + rm[0] + ", Missing = " + rm[1]);
+
+        // Large permutation of 1..n with one value replaced
+        int n = 100_000_000;
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) ids[i] = i + 1;
+        Random rnd = new Random(5);
+        ids[rnd.nextInt(n)] = 123_456; // 123456 now repeats, the old value is missing
+
+        long t0 = System.nanoTime();
+        long s = 0;
+        for (int v : ids) s += v;
+        long serialNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        Result r = reduce(ids);
+        long parNs = System.nanoTime() - t0;
+        rm = missingAndRepeating(r);
+        System.out.println("\nn = " + n + ": serial sum " + serialNs / 1_000_000 + " ms, parallel xor+sum+sumSq "
+                + parNs / 1_000_000 + " ms (sums agree: " + (s == r.sum) + ")");
+        System.out.println("Repeating = " + rm[0] + ", Missing = " + rm[1]);
+
+        // Same data through a memory-mapped file
+        Path tmp = Files.createTempFile("ids", ".bin");
+        try {
+            Files.write(tmp, toBytes(ids, 1_000_000));
+            Result fileResult = reduceFile(tmp, ByteOrder.LITTLE_ENDIAN);
+            Result arrResult = reduceRange(ids, 0, 1_000_000);
+            Result bufResult = reduce(ByteBuffer.wrap(toBytes(ids, 1_000_000)).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer());
+            System.out.println("Mapped file matches array: "
+                    + (fileResult.sum == arrResult.sum && fileResult.xor == arrResult.xor)
+                    + ", IntBuffer matches array: " + (bufResult.sum == arrResult.sum && bufResult.xor == arrResult.xor));
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static byte[] toBytes(int[] arr, int len) {
+        ByteBuffer bb = ByteBuffer.allocate(len * 4).order(ByteOrder.LITTLE_ENDIAN);
+        bb.asIntBuffer().put(arr, 0, len);
+        return bb.array();
+    }
+}
@@ -0,0 +1,169 @@
+import java.util.Arrays;
+
+public class RotatedArrayView {
+
+    // ----------------------------------------------------------
+    // Idea: Instead of physically moving elements on every rotation
+    // (like RightRotateArray does), keep the buffer untouched and only
+    // remember by how many places it has been rotated to the right.
+    //
+    // Logical index i lives at physical index (i - offset) mod n.
+    // - rotate(d)  -> only updates offset, O(1)
+    // - get / set  -> translate the index, O(1)
+    // - copyTo     -> two System.arraycopy segments, O(n)
+    // - materialize-> rotate the real buffer once, O(n), offset resets
+    // ----------------------------------------------------------
+    private final int[] buf;
+    private int offset; // total right rotation, always in [0, n)
+
+    public RotatedArrayView(int[] buf) {
+        this.buf = buf;
+        this.offset = 0;
+    }
+
+    public int length() {
+        return buf.length;
+    }
+
+    // ----------------------------------------------------------
+    // Right rotate by d places (negative d rotates left)
+    // Time Complexity: O(1)
+    // Space Complexity: O(1)
+    // ----------------------------------------------------------
+    public void rotate(int d) {
+        int n = buf.length;
+        if (n == 0) return;
+
+        int step = d % n;       // in (-n, n)
+        if (step < 0) step += n; // left rotation -> equivalent right rotation
+        offset += step;
+        if (offset >= n) offset -= n;
+    }
+
+    // Left rotate by d places, kept for symmetry with LeftRotateArray
+    public void rotateLeft(int d) {
+        rotate(-(d % Math.max(buf.length, 1)));
+    }
+
+    // ----------------------------------------------------------
+    // Helper: logical index -> physical index
+    // Uses a conditional add instead of a second modulo.
+    // ----------------------------------------------------------
+    private int physical(int i) {
+        if (i < 0 || i >= buf.length) {
+            throw new ArrayIndexOutOfBoundsException("Index " + i + " out of bounds for length " + buf.length);
+        }
+        int p = i - offset;
+        return p < 0 ? p + buf.length : p;
+    }
+
+    // Time Complexity: O(1)
+    public int get(int i) {
+        return buf[physical(i)];
+    }
+
+    // Time Complexity: O(1)
+    public void set(int i, int value) {
+        buf[physical(i)] = value;
+    }
+
+    // ----------------------------------------------------------
+    // Copy the rotated contents into dst (dst.length >= n)
+    // Logical element 0 sits at physical index (n - offset) mod n, so the
+    // rotated array is just [start..n) followed by [0..start).
+    // Time Complexity: O(n) – two bulk copies
+    // Space Complexity: O(1)
+    // ----------------------------------------------------------
+    public void copyTo(int[] dst) {
+        int n = buf.length;
+        if (dst.length < n) {
+            throw new IllegalArgumentException("Destination too small: " + dst.length + " < " + n);
+        }
+        int start = offset == 0 ? 0 : n - offset;
+        System.arraycopy(buf, start, dst, 0, n - start);
+        System.arraycopy(buf, 0, dst, n - start, start);
+    }
+
+    // Returns a fresh rotated copy, buffer and offset stay unchanged
+    public int[] toArray() {
+        int[] out = new int[buf.length];
+        copyTo(out);
+        return out;
+    }
+
+    // ----------------------------------------------------------
+    // Apply the pending rotation to the underlying buffer in-place
+    // (reversal algorithm) and reset offset to 0.
+    // Time Complexity: O(n)
+    // Space Complexity: O(1)
+    // ----------------------------------------------------------
+    public int[] materialize() {
+        if (offset != 0) {
+            RightRotateArray.rotateByDReversal(buf, offset);
+            offset = 0;
+        }
+        return buf;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    // ----------------------------------------------------------
+    // Main method: correctness check + benchmark of 1,000,000 rotations
+    // ----------------------------------------------------------
+    public static void main(String[] args) {
+        int[] original = {1, 2, 3, 4, 5, 6, 7};
+        int d = 3;
+
+        RotatedArrayView view = new RotatedArrayView(original.clone());
+        view.rotate(d);
+        System.out.println("View after right rotate by " + d + ": " + view);
+        System.out.println("view.get(0) = " + view.get(0));
+
+        int[] expected = original.clone();
+        RightRotateArray.rotateByDReversal(expected, d);
+        System.out.println("Matches rotateByDReversal: " + Arrays.equals(expected, view.toArray()));
+
+        view.rotateLeft(d);
+        System.out.println("After rotating back left by " + d + ": " + view);
+
+        view.rotate(5);
+        view.set(0, 100);
+        System.out.println("Materialized: " + Arrays.toString(view.materialize()));
+
+        // Benchmark: 1,000,000 rotations followed by a read of every element
+        int n = 1_000;
+        int rotations = 1_000_000;
+        int[] data = new int[n];
+        for (int i = 0; i < n; i++) data[i] = i;
+
+        int[] a = data.clone();
+        long t0 = System.nanoTime();
+        for (int r = 0; r < rotations; r++) RightRotateArray.rotateByOne(a);
+        long oneNs = System.nanoTime() - t0;
+
+        int[] b = data.clone();
+        t0 = System.nanoTime();
+        for (int r = 0; r < rotations; r++) RightRotateArray.rotateByDReversal(b, 7);
+        long revNs = System.nanoTime() - t0;
+
+        RotatedArrayView v1 = new RotatedArrayView(data.clone());
+        RotatedArrayView v7 = new RotatedArrayView(data.clone());
+        t0 = System.nanoTime();
+        for (int r = 0; r < rotations; r++) {
+            v1.rotate(1);
+            v7.rotate(7);
+        }
+        v1.materialize();
+        v7.materialize();
+        long viewNs = System.nanoTime() - t0;
+
+        System.out.println("\nBenchmark: " + rotations + " rotations over n = " + n);
+        System.out.println("rotateByOne          : " + oneNs / 1_000_000 + " ms");
+        System.out.println("rotateByDReversal(7) : " + revNs / 1_000_000 + " ms");
+        System.out.println("RotatedArrayView     : " + viewNs / 1_000_000 + " ms (both views, incl. materialize)");
+        System.out.println("Results agree: " + (Arrays.equals(a, v1.toArray()) && Arrays.equals(b, v7.toArray())));
+    }
+}
@@ -0,0 +1,245 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+public class SortednessCheck {
+
+    // ===========================
+    // Idea
+    // ===========================
+    // CheckArrayForSorted answers only true/false, on one thread, and the
+    // recursive version needs one stack frame per element.
+    //
+    // Here the array is cut into chunks that are checked in parallel.
+    // Each chunk also compares its first element with the last element of
+    // the previous chunk, so no boundary pair is missed. A shared cancel
+    // flag lets every worker stop as soon as any chunk finds a descent.
+    //
+    // For the statistics mode each chunk produces a small summary that
+    // can be merged with its neighbour, so the whole array is described by
+    // merging chunk summaries left to right.
+    static final int CHUNK = 1 << 16;
+    static final int CANCEL_CHECK_EVERY = 1 << 12;
+
+    // ===========================
+    // Approach 1: Parallel boolean check with early exit
+    // ===========================
+    // Time Complexity: O(n / p), stops early on the first descent found
+    // Space Complexity: O(1)
+    static boolean isSortedParallel(int[] arr) {
+        int n = arr.length;
+        if (n < 2) return true;
+
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = Math.max(1, c * CHUNK);     // compare arr[from-1] too
+            int to = Math.min(n, (c + 1) * CHUNK);
+            for (int blockStart = from; blockStart < to; blockStart += CANCEL_CHECK_EVERY) {
+                if (cancelled.get()) return;      // someone else already failed
+                int blockEnd = Math.min(to, blockStart + CANCEL_CHECK_EVERY);
+                for (int i = blockStart; i < blockEnd; i++) {
+                    if (arr[i - 1] > arr[i]) {
+                        cancelled.set(true);
+                        return;
+                    }
+                }
+            }
+        });
+        return !cancelled.get();
+    }
+
+    // ===========================
+    // Run statistics
+    // ===========================
+    // A "run" is a maximal non-decreasing stretch. "descents" counts adjacent
+    // pairs with arr[i - 1] > arr[i]; runs = descents + 1.
+    static final class RunStats {
+        final int length;
+        final int first, last;   // first and last values of the range
+        final long descents;
+        final int prefixRun;     // run starting at the first element
+        final int suffixRun;     // run ending at the last element
+        final int longestRun;
+
+        RunStats(int length, int first, int last, long descents, int prefixRun, int suffixRun, int longestRun) {
+            this.length = length;
+            this.first = first;
+            this.last = last;
+            this.descents = descents;
+            this.prefixRun = prefixRun;
+            this.suffixRun = suffixRun;
+            this.longestRun = longestRun;
+        }
+
+        boolean isSorted() {
+            return descents == 0;
+        }
+
+        boolean isStrictlyDescending() {
+            return length > 1 && longestRun == 1;
+        }
+
+        long runCount() {
+            return length == 0 ? 0 : descents + 1;
+        }
+
+        // Combine this (left) with the range right after it
+        RunStats merge(RunStats right) {
+            if (length == 0) return right;
+            if (right.length == 0) return this;
+
+            boolean joins = last <= right.first;
+            long desc = descents + right.descents + (joins ? 0 : 1);
+            int prefix = (prefixRun == length && joins) ? length + right.prefixRun : prefixRun;
+            int suffix = (right.suffixRun == right.length && joins) ? right.length + suffixRun : right.suffixRun;
+            int best = Math.max(longestRun, right.longestRun);
+            if (joins) best = Math.max(best, suffixRun + right.prefixRun);
+            return new RunStats(length + right.length, first, right.last, desc, prefix, suffix, best);
+        }
+
+        @Override
+        public String toString() {
+            return "runs=" + runCount() + ", longestRun=" + longestRun + ", descents=" + descents;
+        }
+    }
+
+    // Summary of arr[from..to) in one pass
+    // Time Complexity: O(to - from)
+    static RunStats statsOfRange(int[] arr, int from, int to) {
+        int len = to - from;
+        if (len <= 0) return new RunStats(0, 0, 0, 0, 0, 0, 0);
+
+        long descents = 0;
+        int prefix = -1, cur = 1, best = 1;
+        for (int i = from + 1; i < to; i++) {
+            if (arr[i - 1] <= arr[i]) {
+                cur++;
+            } else {
+                descents++;
+                if (prefix < 0) prefix = cur;
+                best = Math.max(best, cur);
+                cur = 1;
+            }
+        }
+        best = Math.max(best, cur);
+        if (prefix < 0) prefix = len;
+        return new RunStats(len, arr[from], arr[to - 1], descents, prefix, cur, best);
+    }
+
+    // ===========================
+    // Approach 2: Parallel run statistics
+    // ===========================
+    // Time Complexity: O(n / p + chunks)
+    // Space Complexity: O(chunks)
+    static RunStats runStatsParallel(int[] arr) {
+        int n = arr.length;
+        int chunks = Math.max(1, (n + CHUNK - 1) / CHUNK);
+        RunStats[] parts = new RunStats[chunks];
+        IntStream.range(0, chunks).parallel().forEach(c ->
+                parts[c] = statsOfRange(arr, Math.min(n, c * CHUNK), Math.min(n, (c + 1) * CHUNK)));
+
+        RunStats total = parts[0];
+        for (int c = 1; c < chunks; c++) total = total.merge(parts[c]); // in order
+        return total;
+    }
+
+    // ===========================
+    // Sort dispatcher
+    // ===========================
+    enum SortStrategy {
+        ALREADY_SORTED,  // nothing to do
+        REVERSE,         // strictly descending -> O(n) reversal
+        RUN_MERGE,       // few long runs -> run-adaptive sort
+        GENERAL          // no useful structure
+    }
+
+    static SortStrategy chooseStrategy(RunStats s) {
+        if (s.isSorted()) return SortStrategy.ALREADY_SORTED;
+        if (s.isStrictlyDescending()) return SortStrategy.REVERSE;
+        // Few descents do not mean short moves (two swapped sorted halves have
+        // one descent but need n^2 / 4 insertion shifts), so few runs of any
+        // length go to the run merge, which is O(n log runs).
+        int log2 = 32 - Integer.numberOfLeadingZeros(s.length);
+        if (s.runCount() <= log2 * 4L) return SortStrategy.RUN_MERGE;
+        return SortStrategy.GENERAL;
+    }
+
+    // Sorts arr using the strategy suggested by its run statistics
+    static SortStrategy sortAdaptive(int[] arr) {
+        SortStrategy strategy = chooseStrategy(runStatsParallel(arr));
+        switch (strategy) {
+            case ALREADY_SORTED:
+                break;
+            case REVERSE:
+                for (int i = 0, j = arr.length - 1; i < j; i++, j--) {
+                    int temp = arr[i];
+                    arr[i] = arr[j];
+                    arr[j] = temp;
+                }
+                break;
+            case RUN_MERGE:
+                Arrays.sort(arr); // DualPivotQuicksort detects and merges runs
+                break;
+            default:
+                Arrays.parallelSort(arr);
+        }
+        return strategy;
+    }
+
+    // ===========================
+    // Main Method
+    // ===========================
+    public static void main(String[] args) {
+        int[] sortedArray = {1, 2, 3, 4, 5};
+        int[] unsortedArray = {1, 3, 2, 5};
+        System.out.println("Parallel check (sorted): " + isSortedParallel(sortedArray));
+        System.out.println("Parallel check (unsorted): " + isSortedParallel(unsortedArray));
+        System.out.println("Stats {1, 3, 2, 5, 6, 0}: " + runStatsParallel(new int[]{1, 3, 2, 5, 6, 0}));
+
+        // Large input: the recursive version would overflow the stack here
+        int n = 50_000_000;
+        int[] big = new int[n];
+        for (int i = 0; i < n; i++) big[i] = i;
+
+        long t0 = System.nanoTime();
+        boolean s1 = CheckArrayForSorted.isSortedIterative(big);
+        long iterNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        boolean s2 = isSortedParallel(big);
+        long parNs = System.nanoTime() - t0;
+        System.out.println("\nn = " + n + " sorted: iterative " + iterNs / 1_000_000 + " ms (" + s1
+                + "), parallel " + parNs / 1_000_000 + " ms (" + s2 + ")");
+
+        // Stats must match a chunk-free single pass
+        Random rnd = new Random(3);
+        for (int i = 0; i < 20; i++) {
+            int p = rnd.nextInt(n - 1);
+            big[p] = big[p + 1] + 1; // introduce a few descents
+        }
+        RunStats par = runStatsParallel(big);
+        RunStats seq = statsOfRange(big, 0, n);
+        System.out.println("Parallel stats: " + par + " | serial: " + seq);
+        System.out.println("Strategy for nearly sorted input: " + chooseStrategy(par));
+
+        int[] reversed = new int[1000];
+        for (int i = 0; i < reversed.length; i++) reversed[i] = reversed.length - i;
+        System.out.println("Strategy for reversed input: " + sortAdaptive(reversed)
+                + " -> sorted now: " + isSortedParallel(reversed));
+
+        // One descent, but every element is far from its place
+        int[] swappedHalves = new int[400_000];
+        for (int i = 0; i < swappedHalves.length; i++) swappedHalves[i] = (i + swappedHalves.length / 2) % swappedHalves.length;
+        t0 = System.nanoTime();
+        SortStrategy halves = sortAdaptive(swappedHalves);
+        System.out.println("Strategy for swapped sorted halves: " + halves + " in " + (System.nanoTime() - t0) / 1_000_000
+                + " ms -> sorted now: " + isSortedParallel(swappedHalves));
+
+        int[] random = new int[1_000_000];
+        for (int i = 0; i < random.length; i++) random[i] = rnd.nextInt();
+        System.out.println("Strategy for random input: " + sortAdaptive(random)
+                + " -> sorted now: " + isSortedParallel(random));
+    }
+}
@@ -0,0 +1,210 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+public class StreamCompaction {
+
+    // ----------------------------------------------------------
+    // Idea: MoveZeroToEnd and RemoveDuplicatesSortedArray are both the
+    // same "write cursor" pattern: walk the array with a read pointer,
+    // copy the element to the write pointer, and advance the write pointer
+    // only when the element should be kept.
+    //
+    // Branchless trick: always write, then advance by 0 or 1.
+    // For an int x, ((x | -x) >>> 31) is 1 when x != 0 and 0 when x == 0,
+    // so the loop has no data-dependent branch to mispredict.
+    // ----------------------------------------------------------
+
+    // Size of one chunk in the parallel two-phase mode
+    static final int CHUNK = 1 << 16;
+
+    // 1 if x != 0, 0 otherwise – without a branch
+    private static int nonZero(int x) {
+        return (x | -x) >>> 31;
+    }
+
+    // ----------------------------------------------------------
+    // Method 1: Generic stable compaction (in-place)
+    // Keeps elements matching the predicate at the front, in order.
+    // Returns the number of kept elements; the tail is left as garbage.
+    // Time Complexity: O(n)
+    // Space Complexity: O(1)
+    // ----------------------------------------------------------
+    public static int compact(int[] arr, IntPredicate keep) {
+        return compact(arr, 0, arr.length, keep);
+    }
+
+    public static int compact(int[] arr, int from, int to, IntPredicate keep) {
+        int w = from;
+        for (int i = from; i < to; i++) {
+            int v = arr[i];
+            arr[w] = v;                 // unconditional write
+            w += keep.test(v) ? 1 : 0;
+        }
+        return w - from;
+    }
+
+    // ----------------------------------------------------------
+    // Method 2: Branchless move-zeroes (same result as moveZeroOptimal)
+    // Time Complexity: O(n)
+    // Space Complexity: O(1)
+    // ----------------------------------------------------------
+    public static int moveZeroes(int[] arr) {
+        int w = 0;
+        for (int i = 0; i < arr.length; i++) {
+            int v = arr[i];
+            arr[w] = v;
+            w += nonZero(v);
+        }
+        Arrays.fill(arr, w, arr.length, 0); // zeros at the end
+        return w;
+    }
+
+    // ----------------------------------------------------------
+    // Method 3: Branchless dedupe of sorted runs
+    // (same result as removeDuplicatesOptimal)
+    // Time Complexity: O(n)
+    // Space Complexity: O(1)
+    // ----------------------------------------------------------
+    public static int dedupeSorted(int[] arr) {
+        int n = arr.length;
+        if (n == 0) return 0;
+
+        int w = 1;
+        int last = arr[0];
+        for (int i = 1; i < n; i++) {
+            int v = arr[i];
+            arr[w] = v;
+            int changed = nonZero(v ^ last); // 1 when a new run starts
+            w += changed;
+            last = v;
+        }
+        return w;
+    }
+
+    // ----------------------------------------------------------
+    // Method 4: Stable partition (both sides keep their order)
+    // Kept elements go to the front, rejected ones to the back.
+    // Rejected elements are buffered in scratch (length >= arr.length),
+    // so the caller can reuse one buffer across calls.
+    // Time Complexity: O(n)
+    // Space Complexity: O(n) – caller-provided scratch
+    // ----------------------------------------------------------
+    public static int stablePartition(int[] arr, IntPredicate keep, int[] scratch) {
+        int w = 0, r = 0;
+        for (int i = 0; i < arr.length; i++) {
+            int v = arr[i];
+            int k = keep.test(v) ? 1 : 0;
+            arr[w] = v;
+            scratch[r] = v;
+            w += k;
+            r += 1 - k;
+        }
+        System.arraycopy(scratch, 0, arr, w, r);
+        return w;
+    }
+
+    // ----------------------------------------------------------
+    // Method 5: Parallel two-phase compaction (out-of-place)
+    // Phase 1: count kept elements per chunk (in parallel)
+    // Phase 2: exclusive prefix sum of counts -> output offset per chunk
+    // Phase 3: every chunk scatters its kept elements to its offset
+    // Output is identical to the serial stable compaction.
+    // Only kept elements are written: dst needs room for the kept count only.
+    // Time Complexity: O(n / p + chunks)
+    // Space Complexity: O(chunks) besides dst
+    // ----------------------------------------------------------
+    public static int parallelCompact(int[] src, IntPredicate keep, int[] dst) {
+        int n = src.length;
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        if (chunks <= 1) {
+            int w = 0;
+            for (int v : src) {
+                if (keep.test(v)) dst[w++] = v;
+            }
+            return w;
+        }
+
+        int[] offsets = new int[chunks + 1];
+
+        // Phase 1: per-chunk counts
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * CHUNK, to = Math.min(n, from + CHUNK);
+            int cnt = 0;
+            for (int i = from; i < to; i++) cnt += keep.test(src[i]) ? 1 : 0;
+            offsets[c + 1] = cnt;
+        });
+
+        // Phase 2: prefix sum
+        for (int c = 0; c < chunks; c++) offsets[c + 1] += offsets[c];
+
+        // Phase 3: scatter
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * CHUNK, to = Math.min(n, from + CHUNK);
+            int w = offsets[c];
+            int end = offsets[c + 1];
+            for (int i = from; i < to && w < end; i++) {
+                int v = src[i];
+                if (keep.test(v)) dst[w++] = v; // bounded by the next chunk's offset
+            }
+        });
+        return offsets[chunks];
+    }
+
+    // ----------------------------------------------------------
+    // Main method: correctness + selectivity benchmark
+    // ----------------------------------------------------------
+    public static void main(String[] args) {
+        int[] zeros = {0, 1, 0, 3, 12};
+        int nz = moveZeroes(zeros);
+        System.out.println("Branchless move zeroes: " + Arrays.toString(zeros) + " (non-zero = " + nz + ")");
+
+        int[] dup = {1, 1, 2, 2, 3, 4, 4, 5};
+        int len = dedupeSorted(dup);
+        System.out.println("Branchless dedupe: " + Arrays.toString(Arrays.copyOf(dup, len)));
+
+        int[] part = {5, 2, 8, 1, 6, 3, 7};
+        int even = stablePartition(part, x -> x % 2 == 0, new int[part.length]);
+        System.out.println("Stable partition (evens first, " + even + "): " + Arrays.toString(part));
+
+        int[] exact = new int[1]; // room for the kept elements only
+        int kept = parallelCompact(new int[]{5, 0}, x -> x != 0, exact);
+        System.out.println("Parallel compact into exact-size dst: " + Arrays.toString(Arrays.copyOf(exact, kept)));
+
+        // Benchmark at several selectivity levels
+        int n = 10_000_000;
+        Random rnd = new Random(42);
+        int[] base = new int[n];
+        for (int i = 0; i < n; i++) base[i] = rnd.nextInt(100);
+
+        int[] dst = new int[n];
+        System.out.println("\nBenchmark over n = " + n + " (keep x < threshold)");
+        for (int sel : new int[]{1, 10, 50, 90, 99}) {
+            IntPredicate keep = x -> x < sel;
+
+            int[] a = base.clone();
+            long t0 = System.nanoTime();
+            int c1 = compact(a, keep);
+            long serial = System.nanoTime() - t0;
+
+            int[] b = base.clone();
+            t0 = System.nanoTime();
+            int w = 0;
+            for (int i = 0; i < n; i++) {
+                if (keep.test(b[i])) b[w++] = b[i]; // branchy baseline
+            }
+            long branchy = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            int c2 = parallelCompact(base, keep, dst);
+            long parallel = System.nanoTime() - t0;
+
+            boolean ok = c1 == w && c1 == c2
+                    && Arrays.equals(a, 0, c1, dst, 0, c2)
+                    && Arrays.equals(a, 0, c1, b, 0, w);
+            System.out.printf("selectivity %2d%% : branchy %4d ms | branchless %4d ms | parallel %4d ms | ok=%b%n",
+                    sel, branchy / 1_000_000, serial / 1_000_000, parallel / 1_000_000, ok);
+        }
+    }
+}
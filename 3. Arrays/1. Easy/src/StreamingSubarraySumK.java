@@ -0,0 +1,305 @@
+import java.util.Arrays;
+import java.util.Random;
+
+public class StreamingSubarraySumK {
+
+    // -------------------------------------------------------------------
+    // Idea: LongestSubarraySumK and SubArraySumK need the whole array.
+    // Here values arrive one at a time (or in chunks) and every time a
+    // subarray ending at the newest value has sum k, a listener is called
+    // with:
+    //   start : earliest start position (-> longest subarray ending here)
+    //   end   : position of the value just accepted
+    //   count : how many subarrays ending here have sum k
+    // Positions are absolute stream offsets (long), starting at 0.
+    //
+    // Memory must stay bounded on an unbounded stream, so only subarrays of
+    // length <= maxWindow are considered. All buffers are allocated once in
+    // the constructor; accept() never allocates.
+    // -------------------------------------------------------------------
+    @FunctionalInterface
+    public interface MatchListener {
+        void onMatch(long start, long end, long count);
+    }
+
+    public enum Mode {
+        ANY_SIGN,     // prefix-sum + hash table, values may be negative
+        NON_NEGATIVE  // two pointers, values must be >= 0
+    }
+
+    private final Mode mode;
+    private final long k;
+    private final int maxWindow;
+    private final MatchListener listener;
+
+    private long position;     // number of values accepted so far
+    private long totalMatches; // like SubArraySumK.subArraySumOptimal
+    private int longestLen;    // like LongestSubarraySumK
+    private long longestStart = -1;
+
+    // ANY_SIGN state: last (maxWindow + 1) prefix sums and a table
+    // prefix value -> (count, first index, last index) over those prefixes
+    private long[] prefixRing;
+    private long[] nextSameRing; // index of the next prefix with equal value
+    private PrefixTable table;
+    private long prefix;
+
+    // NON_NEGATIVE state: values inside the current window [left, position)
+    private int[] windowRing;
+    private long left;
+    private long windowSum;
+    private long firstNonZero = -1; // first position >= left holding a non-zero value
+
+    public StreamingSubarraySumK(Mode mode, long k, int maxWindow, MatchListener listener) {
+        if (maxWindow <= 0) throw new IllegalArgumentException("maxWindow must be positive: " + maxWindow);
+        this.mode = mode;
+        this.k = k;
+        this.maxWindow = maxWindow;
+        this.listener = listener;
+
+        if (mode == Mode.ANY_SIGN) {
+            prefixRing = new long[maxWindow + 1];
+            nextSameRing = new long[maxWindow + 1];
+            table = new PrefixTable(maxWindow + 1);
+            table.insert(0L, 0L); // empty prefix
+        } else {
+            windowRing = new int[maxWindow];
+        }
+    }
+
+    // Accept a whole chunk
+    public void accept(int[] chunk, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) accept(chunk[i]);
+    }
+
+    public void accept(int[] chunk) {
+        accept(chunk, 0, chunk.length);
+    }
+
+    // -------------------------------------------------------------------
+    // Accept one value
+    // Time Complexity: O(1) expected (ANY_SIGN), O(1) amortized (NON_NEGATIVE)
+    // Space Complexity: O(maxWindow), fixed at construction
+    // -------------------------------------------------------------------
+    public void accept(int value) {
+        if (mode == Mode.ANY_SIGN) acceptAnySign(value);
+        else acceptNonNegative(value);
+        position++;
+    }
+
+    private void acceptAnySign(int value) {
+        long j = position + 1; // index of the new prefix
+        prefix += value;
+
+        // Evict the prefix that would make a subarray longer than maxWindow
+        long evict = j - maxWindow - 1;
+        if (evict >= 0) {
+            int slot = (int) (evict % (maxWindow + 1));
+            table.evict(prefixRing[slot], nextSameRing[slot]);
+        }
+
+        // Subarrays (i, j] with prefix[i] = prefix[j] - k
+        int e = table.find(prefix - k);
+        if (e >= 0) report(table.first[e], position, table.count[e]);
+
+        // Remember the new prefix
+        int slot = (int) (j % (maxWindow + 1));
+        prefixRing[slot] = prefix;
+        nextSameRing[slot] = -1;
+        long previousLast = table.insert(prefix, j);
+        if (previousLast >= 0) nextSameRing[(int) (previousLast % (maxWindow + 1))] = j;
+    }
+
+    private void acceptNonNegative(int value) {
+        if (value < 0) throw new IllegalArgumentException("NON_NEGATIVE mode got " + value + " at " + position);
+
+        windowRing[(int) (position % maxWindow)] = value;
+        windowSum += value;
+        if (value != 0 && firstNonZero < 0) firstNonZero = position;
+
+        // Shrink from the left while the sum is too big or the window too long
+        while (left <= position && (windowSum > k || position - left + 1 > maxWindow)) {
+            windowSum -= windowRing[(int) (left % maxWindow)];
+            left++;
+            if (firstNonZero >= 0 && firstNonZero < left) {
+                firstNonZero = -1;
+                for (long p = left; p <= position; p++) { // amortized O(1)
+                    if (windowRing[(int) (p % maxWindow)] != 0) {
+                        firstNonZero = p;
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (left <= position && windowSum == k) {
+            // Leading zeros can be dropped without changing the sum
+            long lastStart = firstNonZero < 0 ? position : firstNonZero;
+            report(left, position, lastStart - left + 1);
+        }
+    }
+
+    private void report(long start, long end, long count) {
+        totalMatches += count;
+        int len = (int) (end - start + 1);
+        if (len > longestLen) {
+            longestLen = len;
+            longestStart = start;
+        }
+        if (listener != null) listener.onMatch(start, end, count);
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public long totalMatches() {
+        return totalMatches;
+    }
+
+    public int longestLength() {
+        return longestLen;
+    }
+
+    public long longestStart() {
+        return longestStart;
+    }
+
+    // -------------------------------------------------------------------
+    // Fixed-capacity open-addressing table keyed by prefix value.
+    // Linear probing with backward-shift deletion so evicted keys leave
+    // no tombstones behind.
+    // -------------------------------------------------------------------
+    static final class PrefixTable {
+        final long[] keys;
+        final int[] count;
+        final long[] first;
+        final long[] last;
+        final boolean[] used;
+        final int mask;
+
+        static final int MAX_CAPACITY = 1 << 30;
+
+        // Power of two with room for expected keys at load factor <= 0.5, computed
+        // in long so it cannot wrap (same rule as PrefixHashIndex.capacityFor).
+        // Inputs that would need more than MAX_CAPACITY slots are rejected.
+        static int capacityFor(int expected) {
+            if (expected > MAX_CAPACITY / 2) {
+                throw new IllegalArgumentException("At most " + MAX_CAPACITY / 2 + " keys, got " + expected);
+            }
+            return (int) (Long.highestOneBit(Math.max(2L, expected) * 2 - 1) << 1);
+        }
+
+        PrefixTable(int maxKeys) {
+            int cap = capacityFor(maxKeys);
+            keys = new long[cap];
+            count = new int[cap];
+            first = new long[cap];
+            last = new long[cap];
+            used = new boolean[cap];
+            mask = cap - 1;
+        }
+
+        private int home(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        int find(long key) {
+            for (int s = home(key); used[s]; s = (s + 1) & mask) {
+                if (keys[s] == key) return s;
+            }
+            return -1;
+        }
+
+        // Returns the previous last index for this key, or -1 if it was new
+        long insert(long key, long index) {
+            int s = home(key);
+            while (used[s]) {
+                if (keys[s] == key) {
+                    long prev = last[s];
+                    last[s] = index;
+                    count[s]++;
+                    return prev;
+                }
+                s = (s + 1) & mask;
+            }
+            used[s] = true;
+            keys[s] = key;
+            count[s] = 1;
+            first[s] = index;
+            last[s] = index;
+            return -1;
+        }
+
+        // Drop the oldest occurrence of key; nextSame is its successor index
+        void evict(long key, long nextSame) {
+            int s = find(key);
+            if (--count[s] > 0) {
+                first[s] = nextSame;
+                return;
+            }
+            // Backward-shift delete
+            used[s] = false;
+            int hole = s;
+            for (int t = (s + 1) & mask; used[t]; t = (t + 1) & mask) {
+                int h = home(keys[t]);
+                boolean movable = hole <= t ? (h <= hole || h > t) : (h <= hole && h > t);
+                if (movable) {
+                    keys[hole] = keys[t];
+                    count[hole] = count[t];
+                    first[hole] = first[t];
+                    last[hole] = last[t];
+                    used[hole] = true;
+                    used[t] = false;
+                    hole = t;
+                }
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------
+    // Main method: compare with the whole-array methods
+    // -------------------------------------------------------------------
+    public static void main(String[] args) {
+        int[] a = {1, 2, 3, -2, 5, 0, 3, -3};
+        int k = 5;
+
+        System.out.println("Stream: " + Arrays.toString(a) + ", k = " + k);
+        StreamingSubarraySumK any = new StreamingSubarraySumK(Mode.ANY_SIGN, k, a.length,
+                (s, e, c) -> System.out.println("  match ending at " + e + ": longest starts at " + s + ", count " + c));
+        any.accept(a, 0, 4);
+        any.accept(a, 4, a.length - 4); // second chunk
+        System.out.println("Total = " + any.totalMatches() + ", longest = " + any.longestLength()
+                + " (LongestSubarraySumK: " + LongestSubarraySumK.getLongestSubarrayOptimal(a, k) + ")");
+
+        int[] b = {2, 0, 0, 3, 1, 1, 1, 2, 0, 0};
+        StreamingSubarraySumK nonNeg = new StreamingSubarraySumK(Mode.NON_NEGATIVE, 3, 4, null);
+        StreamingSubarraySumK check = new StreamingSubarraySumK(Mode.ANY_SIGN, 3, 4, null);
+        nonNeg.accept(b);
+        check.accept(b);
+        System.out.println("\nNon-negative stream " + Arrays.toString(b) + ", k = 3, window <= 4");
+        System.out.println("Two-pointer: total = " + nonNeg.totalMatches() + ", longest = " + nonNeg.longestLength());
+        System.out.println("Prefix-sum : total = " + check.totalMatches() + ", longest = " + check.longestLength());
+
+        // Throughput on a long stream with bounded memory
+        int n = 20_000_000;
+        Random rnd = new Random(1);
+        int[] chunk = new int[4096];
+        StreamingSubarraySumK s1 = new StreamingSubarraySumK(Mode.ANY_SIGN, 10, 1024, null);
+        StreamingSubarraySumK s2 = new StreamingSubarraySumK(Mode.NON_NEGATIVE, 10, 1024, null);
+        long anyNs = 0, nonNegNs = 0;
+        for (int done = 0; done < n; done += chunk.length) {
+            for (int i = 0; i < chunk.length; i++) chunk[i] = rnd.nextInt(5);
+            long t0 = System.nanoTime();
+            s1.accept(chunk);
+            anyNs += System.nanoTime() - t0;
+            t0 = System.nanoTime();
+            s2.accept(chunk);
+            nonNegNs += System.nanoTime() - t0;
+        }
+        System.out.println("\n" + s1.position() + " values, window 1024");
+        System.out.println("ANY_SIGN     : " + anyNs / 1_000_000 + " ms, matches " + s1.totalMatches());
+        System.out.println("NON_NEGATIVE : " + nonNegNs / 1_000_000 + " ms, matches " + s2.totalMatches());
+    }
+}
@@ -0,0 +1,334 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+// Misra-Gries summary: Moore's voting generalized to any number of candidates
+public class HeavyHittersSketch {
+
+    // Idea:
+    // Moore's voting keeps 1 candidate (n/2 majority), the n/3 version keeps 2.
+    // Misra-Gries keeps k candidates with counters. A new value either bumps
+    // its counter, takes a free slot, or - when all k slots are taken -
+    // decrements every counter (a "k+1 way cancellation", exactly like
+    // count-- in Moore's voting).
+    //
+    // Guarantee: for every value x,
+    //   estimate(x) <= trueCount(x) <= estimate(x) + errorBound()
+    // with errorBound() = (n - sum of counters) / (k + 1) <= n / (k + 1).
+    // So any value occurring more than n / (k + 1) times is always kept.
+    //
+    // Two sketches with the same k can be merged (add counters, then subtract
+    // the (k+1)-th largest counter) and the guarantee still holds for the
+    // combined stream, so shards and threads can summarize independently.
+
+    private final int k;         // number of counters
+    private final int[] keys;
+    private final long[] counts;
+    private int used;            // counters in use: slots [0, used)
+    private long n;              // stream length seen so far
+
+    // key -> slot index, open addressing; rebuilt after every cancellation
+    private final int[] indexKeys;
+    private final int[] indexSlots; // slot + 1, 0 = empty
+    private final int indexMask;
+
+    static final int MAX_K = 1 << 26;          // keeps the index capacity in int range
+    static final int HEADER_BYTES = 4 + 8 + 4; // k, n, used
+    static final int ENTRY_BYTES = 4 + 8;      // key, count
+
+    static final int MAX_CAPACITY = 1 << 30;
+
+    // Power of two with room for expected keys at load factor <= 0.5, computed
+    // in long so it cannot wrap (same rule as PrefixHashIndex.capacityFor).
+    // Inputs that would need more than MAX_CAPACITY slots are rejected.
+    static int capacityFor(int expected) {
+        if (expected > MAX_CAPACITY / 2) {
+            throw new IllegalArgumentException("At most " + MAX_CAPACITY / 2 + " keys, got " + expected);
+        }
+        return (int) (Long.highestOneBit(Math.max(2L, expected) * 2 - 1) << 1);
+    }
+
+    public HeavyHittersSketch(int k) {
+        if (k < 1 || k > MAX_K) throw new IllegalArgumentException("k must be in [1, " + MAX_K + "]: " + k);
+        this.k = k;
+        keys = new int[k];
+        counts = new long[k];
+        int cap = capacityFor(k);
+        indexKeys = new int[cap];
+        indexSlots = new int[cap];
+        indexMask = cap - 1;
+    }
+
+    private int home(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & indexMask;
+    }
+
+    private int findSlot(int key) {
+        for (int s = home(key); indexSlots[s] != 0; s = (s + 1) & indexMask) {
+            if (indexKeys[s] == key) return indexSlots[s] - 1;
+        }
+        return -1;
+    }
+
+    private void indexPut(int key, int slot) {
+        int s = home(key);
+        while (indexSlots[s] != 0) s = (s + 1) & indexMask;
+        indexKeys[s] = key;
+        indexSlots[s] = slot + 1;
+    }
+
+    private void rebuildIndex() {
+        Arrays.fill(indexSlots, 0);
+        for (int i = 0; i < used; i++) indexPut(keys[i], i);
+    }
+
+    // Time complexity: O(1) expected, amortized O(1) for cancellations
+    // (each cancellation removes k+1 units that were added one by one).
+    // Space complexity: O(k), independent of the stream length.
+    public void add(int x) {
+        n++;
+        int slot = findSlot(x);
+        if (slot >= 0) {
+            counts[slot]++;
+        } else if (used < k) {
+            keys[used] = x;
+            counts[used] = 1;
+            indexPut(x, used);
+            used++;
+        } else {
+            subtractAndCompact(1);
+        }
+    }
+
+    public void addAll(int[] arr, int from, int to) {
+        for (int i = from; i < to; i++) add(arr[i]);
+    }
+
+    // Subtract d from every counter and drop counters that reach zero
+    private void subtractAndCompact(long d) {
+        int w = 0;
+        for (int i = 0; i < used; i++) {
+            long c = counts[i] - d;
+            if (c > 0) {
+                keys[w] = keys[i];
+                counts[w] = c;
+                w++;
+            }
+        }
+        used = w;
+        rebuildIndex();
+    }
+
+    // Time complexity: O(k log k)
+    public HeavyHittersSketch merge(HeavyHittersSketch other) {
+        if (other.k != k) throw new IllegalArgumentException("Cannot merge k=" + k + " with k=" + other.k);
+
+        // Add counters together (at most 2k distinct keys)
+        int[] mk = new int[used + other.used];
+        long[] mc = new long[used + other.used];
+        int m = used;
+        System.arraycopy(keys, 0, mk, 0, used);
+        System.arraycopy(counts, 0, mc, 0, used);
+        for (int i = 0; i < other.used; i++) {
+            int slot = findSlot(other.keys[i]);
+            if (slot >= 0) {
+                mc[slot] += other.counts[i];
+            } else {
+                mk[m] = other.keys[i];
+                mc[m] = other.counts[i];
+                m++;
+            }
+        }
+
+        // Too many: subtract the (k+1)-th largest counter from everyone
+        long cut = 0;
+        if (m > k) {
+            long[] sorted = Arrays.copyOf(mc, m);
+            Arrays.sort(sorted);
+            cut = sorted[m - k - 1];
+        }
+        used = 0;
+        for (int i = 0; i < m; i++) {
+            long c = mc[i] - cut;
+            if (c > 0) {
+                keys[used] = mk[i];
+                counts[used] = c;
+                used++;
+            }
+        }
+        n += other.n;
+        rebuildIndex();
+        return this;
+    }
+
+    public long streamLength() {
+        return n;
+    }
+
+    // Lower bound on the true count of x
+    public long estimate(int x) {
+        int slot = findSlot(x);
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    // Max possible undercount of any estimate
+    public long errorBound() {
+        long sum = 0;
+        for (int i = 0; i < used; i++) sum += counts[i];
+        return (n - sum) / (k + 1);
+    }
+
+    // ---------------------------------------------------------------
+    // Candidates whose true count might exceed n / divisor
+    // (divisor = 2 for the majority element, 3 for the n/3 version).
+    // No false negatives as long as divisor <= k + 1.
+    // ---------------------------------------------------------------
+    public int[] candidates(int divisor) {
+        long threshold = n / divisor;
+        long err = errorBound();
+        int[] out = new int[used];
+        int c = 0;
+        for (int i = 0; i < used; i++) {
+            if (counts[i] + err > threshold) out[c++] = keys[i];
+        }
+        int[] result = Arrays.copyOf(out, c);
+        Arrays.sort(result);
+        return result;
+    }
+
+    // ---------------------------------------------------------------
+    // Optional exact second pass (same role as the "verify candidate"
+    // loop in majorityElementOptimal): keep candidates whose real count
+    // in data is > n / divisor.
+    // Time complexity: O(n) expected
+    // ---------------------------------------------------------------
+    public int[] verify(int[] data, int divisor) {
+        int[] cand = candidates(divisor);
+        long[] exact = new long[cand.length];
+        for (int x : data) {
+            int i = Arrays.binarySearch(cand, x);
+            if (i >= 0) exact[i]++;
+        }
+        int c = 0;
+        for (int i = 0; i < cand.length; i++) {
+            if (exact[i] > data.length / divisor) cand[c++] = cand[i];
+        }
+        return Arrays.copyOf(cand, c);
+    }
+
+    // Build sketches per chunk in parallel and merge them
+    public static HeavyHittersSketch parallelBuild(int[] arr, int k, int chunk) {
+        int chunks = Math.max(1, (arr.length + chunk - 1) / chunk);
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    HeavyHittersSketch s = new HeavyHittersSketch(k);
+                    s.addAll(arr, c * chunk, Math.min(arr.length, (c + 1) * chunk));
+                    return s;
+                })
+                .reduce(HeavyHittersSketch::merge)
+                .orElseGet(() -> new HeavyHittersSketch(k));
+    }
+
+    // ---------------------------------------------------------------
+    // Serialization: k, n, used, then (key, count) pairs
+    // ---------------------------------------------------------------
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_BYTES + used * ENTRY_BYTES);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(k);
+            out.writeLong(n);
+            out.writeInt(used);
+            for (int i = 0; i < used; i++) {
+                out.writeInt(keys[i]);
+                out.writeLong(counts[i]);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory stream, cannot happen
+        }
+        return bytes.toByteArray();
+    }
+
+    // The header is checked against the buffer length before anything is
+    // allocated, so a corrupt or hostile k / used cannot trigger a huge array.
+    public static HeavyHittersSketch fromBytes(byte[] data) throws IOException {
+        if (data.length < HEADER_BYTES) {
+            throw new IllegalArgumentException("Corrupt sketch: " + data.length + " bytes, header needs " + HEADER_BYTES);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int k = in.readInt();
+            long n = in.readLong();
+            int used = in.readInt();
+            if (k < 1 || k > MAX_K) throw new IllegalArgumentException("Corrupt sketch: k=" + k);
+            if (n < 0) throw new IllegalArgumentException("Corrupt sketch: n=" + n);
+            if (used < 0 || used > k) throw new IllegalArgumentException("Corrupt sketch: " + used + " counters for k=" + k);
+            long expected = HEADER_BYTES + (long) used * ENTRY_BYTES;
+            if (data.length != expected) {
+                throw new IllegalArgumentException("Corrupt sketch: " + used + " counters need " + expected
+                        + " bytes, got " + data.length);
+            }
+            HeavyHittersSketch s = new HeavyHittersSketch(k);
+            s.n = n;
+            for (int i = 0; i < used; i++) {
+                s.keys[i] = in.readInt();
+                s.counts[i] = in.readLong();
+            }
+            s.used = used;
+            s.rebuildIndex();
+            return s;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] arr = {2, 2, 1, 1, 1, 2, 2};
+        HeavyHittersSketch one = new HeavyHittersSketch(1);
+        one.addAll(arr, 0, arr.length);
+        System.out.println("Majority (k=1 sketch + verify): " + Arrays.toString(one.verify(arr, 2))
+                + ", Moore's voting: " + MajorityElement.majorityElementOptimal(arr));
+
+        int[] third = {1, 2, 3, 1, 2, 1, 2, 4};
+        HeavyHittersSketch two = new HeavyHittersSketch(2);
+        two.addAll(third, 0, third.length);
+        System.out.println("More than n/3 (k=2): " + Arrays.toString(two.verify(third, 3)));
+
+        // Zipf-like stream: a few values dominate
+        int n = 20_000_000;
+        Random rnd = new Random(17);
+        int[] stream = new int[n];
+        for (int i = 0; i < n; i++) {
+            double u = rnd.nextDouble();
+            stream[i] = u < 0.12 ? 7 : u < 0.20 ? 42 : u < 0.25 ? 99 : rnd.nextInt(1_000_000);
+        }
+
+        long t0 = System.nanoTime();
+        HeavyHittersSketch serial = new HeavyHittersSketch(19);
+        serial.addAll(stream, 0, n);
+        long serialNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        HeavyHittersSketch par = parallelBuild(stream, 19, 1 << 20);
+        long parNs = System.nanoTime() - t0;
+
+        HeavyHittersSketch copy = fromBytes(par.toBytes());
+        System.out.println("\nn = " + n + ", k = 19, error bound = " + par.errorBound()
+                + " (<= n/(k+1) = " + n / 20 + ")");
+        System.out.println("serial " + serialNs / 1_000_000 + " ms, parallel+merge " + parNs / 1_000_000 + " ms");
+        System.out.println("> n/20 candidates: " + Arrays.toString(par.candidates(20)));
+        System.out.println("> n/20 verified  : " + Arrays.toString(par.verify(stream, 20)));
+        System.out.println("estimate(7): serial " + serial.estimate(7) + ", merged " + par.estimate(7)
+                + ", deserialized " + copy.estimate(7) + ", serialized size " + par.toBytes().length + " bytes");
+
+        byte[] corrupt = par.toBytes();
+        corrupt[0] = 0x7f; // k = ~2^31
+        try {
+            fromBytes(corrupt);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Corrupt header rejected: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,277 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+public class LongestConsecutivePrimitive {
+
+    /**
+     * PRIMITIVE INT SET
+     * ------------------
+     * Open addressing with linear probing over a plain int[].
+     * Integer.MIN_VALUE marks an empty slot; the value MIN_VALUE itself is
+     * tracked by a separate flag. With load factor <= 0.5 this costs about
+     * 8-16 bytes per element, versus ~50 bytes for HashSet<Integer>
+     * (node + boxed Integer + table slot).
+     */
+    static final class IntOpenSet {
+        static final int EMPTY = Integer.MIN_VALUE;
+
+        final int[] table;
+        final int mask;
+        boolean hasEmptyValue;
+        int size;
+
+        static final int MAX_CAPACITY = 1 << 30;
+
+        // Power of two with room for expected keys at load factor <= 0.5, computed
+        // in long so it cannot wrap (same rule as PrefixHashIndex.capacityFor).
+        // Inputs that would need more than MAX_CAPACITY slots are rejected.
+        static int capacityFor(int expected) {
+            if (expected > MAX_CAPACITY / 2) {
+                throw new IllegalArgumentException("At most " + MAX_CAPACITY / 2 + " keys, got " + expected);
+            }
+            return (int) (Long.highestOneBit(Math.max(2L, expected) * 2 - 1) << 1);
+        }
+
+        IntOpenSet(int expected) {
+            int cap = capacityFor(expected);
+            table = new int[cap];
+            Arrays.fill(table, EMPTY);
+            mask = cap - 1;
+        }
+
+        private int slotOf(int key) {
+            int h = key * 0x9E3779B9; // Fibonacci hashing
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        /** @return true if the key was not present before */
+        boolean add(int key) {
+            if (key == EMPTY) {
+                if (hasEmptyValue) return false;
+                hasEmptyValue = true;
+                size++;
+                return true;
+            }
+            int s = slotOf(key);
+            while (table[s] != EMPTY) {
+                if (table[s] == key) return false;
+                s = (s + 1) & mask;
+            }
+            table[s] = key;
+            size++;
+            return true;
+        }
+
+        boolean contains(int key) {
+            if (key == EMPTY) return hasEmptyValue;
+            for (int s = slotOf(key); table[s] != EMPTY; s = (s + 1) & mask) {
+                if (table[s] == key) return true;
+            }
+            return false;
+        }
+
+        /** Slot holding key, or -1. Not defined for Integer.MIN_VALUE. */
+        int slot(int key) {
+            for (int s = slotOf(key); table[s] != EMPTY; s = (s + 1) & mask) {
+                if (table[s] == key) return s;
+            }
+            return -1;
+        }
+
+        long bytes() {
+            return 4L * table.length;
+        }
+    }
+
+    /**
+     * OPTIMAL APPROACH ON A PRIMITIVE SET
+     * ------------------------------------
+     * Same algorithm as LongestConsecutiveSequence.optimalApproach, but on
+     * IntOpenSet. Walking the table instead of the input visits every
+     * distinct value once.
+     * - Time Complexity: O(n) expected
+     * - Space Complexity: O(n), ~8-16 bytes per element
+     *
+     * @param arr Input array
+     * @return Length of longest consecutive sequence
+     */
+    static int withIntSet(int[] arr) {
+        if (arr == null || arr.length == 0) return 0;
+        IntOpenSet set = new IntOpenSet(arr.length);
+        for (int x : arr) set.add(x);
+
+        int longest = set.hasEmptyValue ? runFrom(set, Integer.MIN_VALUE) : 0;
+        for (int x : set.table) {
+            if (x == IntOpenSet.EMPTY) continue;
+            // x - 1 wraps for MIN_VALUE only, which is handled above
+            if (!set.contains(x - 1)) longest = Math.max(longest, runFrom(set, x));
+        }
+        return longest;
+    }
+
+    // Length of the run starting at x (x must be a sequence start)
+    private static int runFrom(IntOpenSet set, int x) {
+        int count = 1;
+        while (x != Integer.MAX_VALUE && set.contains(x + 1)) {
+            x++;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * RADIX-SORT APPROACH
+     * -------------------
+     * LSD radix sort (4 passes of 8 bits, sign bit flipped) instead of a
+     * comparison sort of boxed values, then one scan that skips duplicates.
+     * - Time Complexity: O(4n)
+     * - Space Complexity: O(n), 8 bytes per element (copy + buffer)
+     *
+     * @param arr Input array (not modified)
+     * @return Length of longest consecutive sequence
+     */
+    static int withRadixSort(int[] arr) {
+        if (arr == null || arr.length == 0) return 0;
+        int[] a = arr.clone();
+        radixSort(a);
+
+        int longest = 1, current = 1;
+        for (int i = 1; i < a.length; i++) {
+            if (a[i] == a[i - 1]) continue;              // duplicate
+            if ((long) a[i] - a[i - 1] == 1) current++;  // long: no wrap
+            else current = 1;
+            longest = Math.max(longest, current);
+        }
+        return longest;
+    }
+
+    static void radixSort(int[] a) {
+        int n = a.length;
+        int[] buf = new int[n];
+        int[] count = new int[257];
+        int[] src = a, dst = buf;
+        for (int shift = 0; shift < 32; shift += 8) {
+            Arrays.fill(count, 0);
+            for (int v : src) count[(((v ^ Integer.MIN_VALUE) >>> shift) & 0xFF) + 1]++;
+            for (int i = 0; i < 256; i++) count[i + 1] += count[i];
+            for (int v : src) dst[count[((v ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++] = v;
+            int[] t = src;
+            src = dst;
+            dst = t;
+        }
+        // after 4 passes the result is back in a
+    }
+
+    /**
+     * PARALLEL UNION-FIND APPROACH
+     * -----------------------------
+     * Every distinct value is a node (its slot in IntOpenSet). In parallel,
+     * union x with x + 1 whenever both are present, then count component
+     * sizes. Unions are lock-free: a root is always linked under a root with
+     * a smaller index via CAS, so no cycles can form.
+     * - Time Complexity: O(n * alpha(n) / p) expected
+     * - Space Complexity: O(n)
+     *
+     * @param arr Input array
+     * @return Length of longest consecutive sequence
+     */
+    static int withParallelUnionFind(int[] arr) {
+        if (arr == null || arr.length == 0) return 0;
+        IntOpenSet set = new IntOpenSet(arr.length);
+        for (int x : arr) set.add(x); // MIN_VALUE only sets the flag
+
+        int cap = set.table.length;
+        AtomicIntegerArray parent = new AtomicIntegerArray(cap);
+        IntStream.range(0, cap).parallel().forEach(i -> parent.set(i, i));
+
+        IntStream.range(0, cap).parallel().forEach(i -> {
+            int x = set.table[i];
+            if (x == IntOpenSet.EMPTY || x == Integer.MAX_VALUE) return;
+            int j = set.slot(x + 1);
+            if (j >= 0) union(parent, i, j);
+        });
+
+        AtomicIntegerArray size = new AtomicIntegerArray(cap);
+        IntStream.range(0, cap).parallel().forEach(i -> {
+            if (set.table[i] != IntOpenSet.EMPTY) size.incrementAndGet(find(parent, i));
+        });
+
+        int longest = IntStream.range(0, cap).parallel().map(size::get).max().orElse(0);
+        if (set.hasEmptyValue) {
+            // MIN_VALUE is kept out of the table; glue it to the run starting at MIN_VALUE + 1
+            int j = set.slot(Integer.MIN_VALUE + 1);
+            longest = Math.max(longest, j >= 0 ? size.get(find(parent, j)) + 1 : 1);
+        }
+        return longest;
+    }
+
+    // Find with path halving; CAS failures are harmless (another thread helped)
+    private static int find(AtomicIntegerArray parent, int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) return x;
+            int gp = parent.get(p);
+            if (p != gp) parent.compareAndSet(x, p, gp);
+            x = gp;
+        }
+    }
+
+    private static void union(AtomicIntegerArray parent, int a, int b) {
+        while (true) {
+            int ra = find(parent, a), rb = find(parent, b);
+            if (ra == rb) return;
+            if (ra < rb) { int t = ra; ra = rb; rb = t; } // link larger index under smaller
+            if (parent.compareAndSet(ra, ra, rb)) return;
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] arr = {100, 4, 200, 1, 3, 2};
+        System.out.println("Input: " + Arrays.toString(arr));
+        System.out.println("IntOpenSet      -> " + withIntSet(arr));
+        System.out.println("Radix sort      -> " + withRadixSort(arr));
+        System.out.println("Union-find      -> " + withParallelUnionFind(arr));
+        System.out.println("HashSet optimal -> " + LongestConsecutiveSequence.optimalApproach(arr));
+
+        int[] edge = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MAX_VALUE, 5, 5};
+        System.out.println("Edge values: set " + withIntSet(edge) + ", radix " + withRadixSort(edge)
+                + ", union-find " + withParallelUnionFind(edge));
+
+        // Memory per element
+        int m = 2_000_000;
+        Random rnd = new Random(13);
+        int[] mem = new int[m];
+        for (int i = 0; i < m; i++) mem[i] = rnd.nextInt();
+
+        IntOpenSet prim = new IntOpenSet(m);
+        for (int x : mem) prim.add(x);
+        System.out.println("\nIntOpenSet table (n = " + m + "): " + prim.bytes() / m
+                + " bytes per element, versus ~50 for HashSet<Integer>");
+
+        // Throughput
+        int n = 10_000_000;
+        int[] data = new int[n];
+        for (int i = 0; i < n; i++) data[i] = rnd.nextInt(n * 2);
+
+        long t0 = System.nanoTime();
+        int r0 = LongestConsecutiveSequence.optimalApproach(data);
+        long hashNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        int r1 = withIntSet(data);
+        long setNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        int r2 = withRadixSort(data);
+        long radixNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        int r3 = withParallelUnionFind(data);
+        long ufNs = System.nanoTime() - t0;
+
+        System.out.println("\nn = " + n + " (answer " + r0 + ")");
+        System.out.println("HashSet<Integer>   : " + hashNs / 1_000_000 + " ms");
+        System.out.println("IntOpenSet         : " + setNs / 1_000_000 + " ms (" + r1 + ")");
+        System.out.println("Radix sort         : " + radixNs / 1_000_000 + " ms (" + r2 + ")");
+        System.out.println("Parallel union-find: " + ufNs / 1_000_000 + " ms (" + r3 + ")");
+    }
+}
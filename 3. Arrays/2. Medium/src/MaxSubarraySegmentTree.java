@@ -0,0 +1,285 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class MaxSubarraySegmentTree {
+
+    /**
+     * Idea:
+     * Kadane (MaxSubArraySum.maxSubarrayOptimal) is one left-to-right scan,
+     * so it can neither use many cores nor answer "best subarray inside
+     * [l, r]" without rescanning. Instead, describe every segment by
+     *
+     *   sum  : total of the segment
+     *   pre  : best sum of a prefix   (ends at preEnd)
+     *   suf  : best sum of a suffix   (starts at sufStart)
+     *   best : best sum of any subarray [bestL, bestR]
+     *
+     * Two neighbouring segments merge in O(1):
+     *   pre  = max(L.pre, L.sum + R.pre)
+     *   suf  = max(R.suf, R.sum + L.suf)
+     *   best = max(L.best, R.best, L.suf + R.pre)
+     *
+     * A segment tree of these nodes gives O(log n) range queries and point
+     * updates. Building is a bottom-up merge, and the two halves of a large
+     * node are independent, so they are built in parallel with ForkJoin.
+     *
+     * Nodes are stored in parallel primitive arrays (index 1 is the root,
+     * children 2i and 2i + 1). Sums are long so they cannot overflow.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private final int n;
+    private final long[] sum, pre, suf, best;
+    private final int[] preEnd, sufStart, bestL, bestR;
+
+    /** Result of a query, same fields as a tree node. */
+    static final class Segment {
+        long sum, pre, suf, best;
+        int preEnd, sufStart, bestL, bestR;
+
+        @Override
+        public String toString() {
+            return "best=" + best + " at [" + bestL + ", " + bestR + "]";
+        }
+    }
+
+    public MaxSubarraySegmentTree(int[] arr) {
+        if (arr.length == 0) throw new IllegalArgumentException("Array must not be empty");
+        n = arr.length;
+        int size = 4 * n;
+        sum = new long[size];
+        pre = new long[size];
+        suf = new long[size];
+        best = new long[size];
+        preEnd = new int[size];
+        sufStart = new int[size];
+        bestL = new int[size];
+        bestR = new int[size];
+        ForkJoinPool.commonPool().invoke(new Build(arr, 1, 0, n - 1));
+    }
+
+    // Parallel build: Time Complexity O(n / p + log n), Space O(n)
+    private final class Build extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int[] arr;
+        final int node, l, r;
+
+        Build(int[] arr, int node, int l, int r) {
+            this.arr = arr;
+            this.node = node;
+            this.l = l;
+            this.r = r;
+        }
+
+        @Override
+        protected void compute() {
+            if (r - l < PARALLEL_THRESHOLD) {
+                buildSerial(arr, node, l, r);
+                return;
+            }
+            int mid = (l + r) >>> 1;
+            invokeAll(new Build(arr, 2 * node, l, mid), new Build(arr, 2 * node + 1, mid + 1, r));
+            pull(node);
+        }
+    }
+
+    private void buildSerial(int[] arr, int node, int l, int r) {
+        if (l == r) {
+            setLeaf(node, l, arr[l]);
+            return;
+        }
+        int mid = (l + r) >>> 1;
+        buildSerial(arr, 2 * node, l, mid);
+        buildSerial(arr, 2 * node + 1, mid + 1, r);
+        pull(node);
+    }
+
+    private void setLeaf(int node, int i, int value) {
+        sum[node] = pre[node] = suf[node] = best[node] = value;
+        preEnd[node] = sufStart[node] = bestL[node] = bestR[node] = i;
+    }
+
+    // Recompute node from its two children
+    private void pull(int node) {
+        int a = 2 * node, b = 2 * node + 1;
+        sum[node] = sum[a] + sum[b];
+
+        if (pre[a] >= sum[a] + pre[b]) {
+            pre[node] = pre[a];
+            preEnd[node] = preEnd[a];
+        } else {
+            pre[node] = sum[a] + pre[b];
+            preEnd[node] = preEnd[b];
+        }
+
+        if (suf[b] >= sum[b] + suf[a]) {
+            suf[node] = suf[b];
+            sufStart[node] = sufStart[b];
+        } else {
+            suf[node] = sum[b] + suf[a];
+            sufStart[node] = sufStart[a];
+        }
+
+        best[node] = best[a];
+        bestL[node] = bestL[a];
+        bestR[node] = bestR[a];
+        if (best[b] > best[node]) {
+            best[node] = best[b];
+            bestL[node] = bestL[b];
+            bestR[node] = bestR[b];
+        }
+        if (suf[a] + pre[b] > best[node]) {
+            best[node] = suf[a] + pre[b];
+            bestL[node] = sufStart[a];
+            bestR[node] = preEnd[b];
+        }
+    }
+
+    private Segment nodeToSegment(int node) {
+        Segment s = new Segment();
+        s.sum = sum[node];
+        s.pre = pre[node];
+        s.suf = suf[node];
+        s.best = best[node];
+        s.preEnd = preEnd[node];
+        s.sufStart = sufStart[node];
+        s.bestL = bestL[node];
+        s.bestR = bestR[node];
+        return s;
+    }
+
+    // Same merge as pull(), for query results
+    static Segment merge(Segment a, Segment b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        Segment s = new Segment();
+        s.sum = a.sum + b.sum;
+        if (a.pre >= a.sum + b.pre) {
+            s.pre = a.pre;
+            s.preEnd = a.preEnd;
+        } else {
+            s.pre = a.sum + b.pre;
+            s.preEnd = b.preEnd;
+        }
+        if (b.suf >= b.sum + a.suf) {
+            s.suf = b.suf;
+            s.sufStart = b.sufStart;
+        } else {
+            s.suf = b.sum + a.suf;
+            s.sufStart = a.sufStart;
+        }
+        s.best = a.best;
+        s.bestL = a.bestL;
+        s.bestR = a.bestR;
+        if (b.best > s.best) {
+            s.best = b.best;
+            s.bestL = b.bestL;
+            s.bestR = b.bestR;
+        }
+        if (a.suf + b.pre > s.best) {
+            s.best = a.suf + b.pre;
+            s.bestL = a.sufStart;
+            s.bestR = b.preEnd;
+        }
+        return s;
+    }
+
+    /**
+     * Best subarray of the whole array.
+     * Time Complexity: O(1)
+     */
+    public Segment whole() {
+        return nodeToSegment(1);
+    }
+
+    /**
+     * Best subarray fully inside [ql, qr].
+     * Time Complexity: O(log n)
+     */
+    public Segment query(int ql, int qr) {
+        if (ql < 0 || qr >= n || ql > qr) {
+            throw new IndexOutOfBoundsException("Range [" + ql + ", " + qr + "] out of bounds for length " + n);
+        }
+        return query(1, 0, n - 1, ql, qr);
+    }
+
+    private Segment query(int node, int l, int r, int ql, int qr) {
+        if (qr < l || r < ql) return null;
+        if (ql <= l && r <= qr) return nodeToSegment(node);
+        int mid = (l + r) >>> 1;
+        return merge(query(2 * node, l, mid, ql, qr), query(2 * node + 1, mid + 1, r, ql, qr));
+    }
+
+    /**
+     * Set arr[i] = value.
+     * Time Complexity: O(log n)
+     */
+    public void update(int i, int value) {
+        if (i < 0 || i >= n) throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + n);
+        update(1, 0, n - 1, i, value);
+    }
+
+    private void update(int node, int l, int r, int i, int value) {
+        if (l == r) {
+            setLeaf(node, i, value);
+            return;
+        }
+        int mid = (l + r) >>> 1;
+        if (i <= mid) update(2 * node, l, mid, i, value);
+        else update(2 * node + 1, mid + 1, r, i, value);
+        pull(node);
+    }
+
+    // Plain Kadane on a range, used to check the tree
+    private static long kadane(int[] a, int l, int r) {
+        long bestSum = Long.MIN_VALUE, cur = 0;
+        for (int i = l; i <= r; i++) {
+            cur = Math.max(cur + a[i], a[i]);
+            bestSum = Math.max(bestSum, cur);
+        }
+        return bestSum;
+    }
+
+    public static void main(String[] args) {
+        int[] nums = {-2, 1, -3, 4, -1, 2, 1, -5, 4};
+        MaxSubarraySegmentTree tree = new MaxSubarraySegmentTree(nums);
+        System.out.println("Array: " + Arrays.toString(nums));
+        System.out.println("Whole array: " + tree.whole()
+                + " (maxSubarrayOptimal: " + MaxSubArraySum.maxSubarrayOptimal(nums) + ")");
+        System.out.println("Range [0, 2]: " + tree.query(0, 2));
+        System.out.println("Range [4, 8]: " + tree.query(4, 8));
+        tree.update(7, 10);
+        System.out.println("After arr[7] = 10: " + tree.whole());
+
+        // Large random check + timing
+        int n = 4_000_000; // tree uses ~4n nodes of 48 bytes
+        Random rnd = new Random(29);
+        int[] big = new int[n];
+        for (int i = 0; i < n; i++) big[i] = rnd.nextInt(2001) - 1000;
+
+        long t0 = System.nanoTime();
+        long serial = kadane(big, 0, n - 1);
+        long kadaneNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        MaxSubarraySegmentTree bigTree = new MaxSubarraySegmentTree(big);
+        long buildNs = System.nanoTime() - t0;
+
+        boolean ok = bigTree.whole().best == serial;
+        t0 = System.nanoTime();
+        int queries = 100_000;
+        for (int q = 0; q < queries; q++) {
+            int l = rnd.nextInt(n), r = Math.min(n - 1, l + rnd.nextInt(1000));
+            Segment s = bigTree.query(l, r);
+            if (q < 200) ok &= s.best == kadane(big, l, r);
+        }
+        long queryNs = System.nanoTime() - t0;
+
+        System.out.println("\nn = " + n + ": serial Kadane " + kadaneNs / 1_000_000 + " ms, parallel build "
+                + buildNs / 1_000_000 + " ms, " + queries + " range queries " + queryNs / 1_000_000
+                + " ms, results agree: " + ok);
+    }
+}
@@ -0,0 +1,291 @@
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class ParallelSetMatrixZero {
+
+    // Idea:
+    // setZeroesBetter keeps one int marker per row and column,
+    // setZeroesOptimal reuses the first row/column but runs on one thread.
+    // Here:
+    // 1. Scan rows in parallel, in blocks of 64 rows. Each block owns one
+    //    word of the row bitset (no sharing) and builds its own column
+    //    bitset; the column bitsets are OR-ed together afterwards.
+    // 2. Rows marked zero are cleared with Arrays.fill (a memset).
+    // 3. Other rows only need the zero columns cleared. They are processed
+    //    in row-major tiles (64 rows x TILE_COLS zero columns), so each tile
+    //    touches a small, cache-resident part of every row.
+    //
+    // Works on int[][], flat row-major int[] and row-major MemorySegment.
+    // Marker memory is (rows + cols) / 8 bytes instead of 4 * (rows + cols).
+
+    static final int TILE_COLS = 1024;
+
+    // Row-major storage abstraction
+    interface Grid {
+        int rows();
+
+        int cols();
+
+        // Scan row r, set the bit of every zero column, return true if any zero
+        boolean scanRow(int r, long[] colBits);
+
+        void clearRow(int r);
+
+        // Clear columns zeroCols[from..to) in row r
+        void clearCells(int r, int[] zeroCols, int from, int to);
+    }
+
+    static final class JaggedGrid implements Grid {
+        final int[][] m;
+
+        JaggedGrid(int[][] m) {
+            this.m = m;
+        }
+
+        public int rows() {
+            return m.length;
+        }
+
+        public int cols() {
+            return m.length == 0 ? 0 : m[0].length;
+        }
+
+        public boolean scanRow(int r, long[] colBits) {
+            int[] row = m[r];
+            boolean any = false;
+            for (int j = 0; j < row.length; j++) {
+                if (row[j] == 0) {
+                    colBits[j >>> 6] |= 1L << j;
+                    any = true;
+                }
+            }
+            return any;
+        }
+
+        public void clearRow(int r) {
+            Arrays.fill(m[r], 0);
+        }
+
+        public void clearCells(int r, int[] zeroCols, int from, int to) {
+            int[] row = m[r];
+            for (int k = from; k < to; k++) row[zeroCols[k]] = 0;
+        }
+    }
+
+    static final class FlatGrid implements Grid {
+        final int[] a;
+        final int rows, cols;
+
+        FlatGrid(int[] a, int rows, int cols) {
+            if ((long) rows * cols > a.length) throw new IllegalArgumentException("Array smaller than rows * cols");
+            this.a = a;
+            this.rows = rows;
+            this.cols = cols;
+        }
+
+        public int rows() {
+            return rows;
+        }
+
+        public int cols() {
+            return cols;
+        }
+
+        public boolean scanRow(int r, long[] colBits) {
+            int base = r * cols;
+            boolean any = false;
+            for (int j = 0; j < cols; j++) {
+                if (a[base + j] == 0) {
+                    colBits[j >>> 6] |= 1L << j;
+                    any = true;
+                }
+            }
+            return any;
+        }
+
+        public void clearRow(int r) {
+            Arrays.fill(a, r * cols, (r + 1) * cols, 0);
+        }
+
+        public void clearCells(int r, int[] zeroCols, int from, int to) {
+            int base = r * cols;
+            for (int k = from; k < to; k++) a[base + zeroCols[k]] = 0;
+        }
+    }
+
+    static final class SegmentGrid implements Grid {
+        static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT;
+        final MemorySegment seg;
+        final int rows, cols;
+
+        SegmentGrid(MemorySegment seg, int rows, int cols) {
+            if (seg.byteSize() < 4L * rows * cols) throw new IllegalArgumentException("Segment smaller than rows * cols");
+            this.seg = seg;
+            this.rows = rows;
+            this.cols = cols;
+        }
+
+        public int rows() {
+            return rows;
+        }
+
+        public int cols() {
+            return cols;
+        }
+
+        public boolean scanRow(int r, long[] colBits) {
+            long base = (long) r * cols;
+            boolean any = false;
+            for (int j = 0; j < cols; j++) {
+                if (seg.getAtIndex(INT, base + j) == 0) {
+                    colBits[j >>> 6] |= 1L << j;
+                    any = true;
+                }
+            }
+            return any;
+        }
+
+        public void clearRow(int r) {
+            seg.asSlice(4L * r * cols, 4L * cols).fill((byte) 0);
+        }
+
+        public void clearCells(int r, int[] zeroCols, int from, int to) {
+            long base = (long) r * cols;
+            for (int k = from; k < to; k++) seg.setAtIndex(INT, base + zeroCols[k], 0);
+        }
+    }
+
+    // Time Complexity: O(m * n / p)
+    // Space Complexity: O((m + n) / 64) words, plus one column bitset per row block during the scan
+    static void setZeroes(Grid g) {
+        int m = g.rows(), n = g.cols();
+        if (m == 0 || n == 0) return;
+        int rowWords = (m + 63) >>> 6;
+        int colWords = (n + 63) >>> 6;
+        long[] rowBits = new long[rowWords];
+
+        // Phase 1: parallel scan, block b owns rows [64b, 64b + 64)
+        long[] colBits = IntStream.range(0, rowWords).parallel()
+                .mapToObj(b -> {
+                    long[] local = new long[colWords];
+                    long word = 0;
+                    for (int r = b << 6; r < Math.min(m, (b + 1) << 6); r++) {
+                        if (g.scanRow(r, local)) word |= 1L << r;
+                    }
+                    rowBits[b] = word;
+                    return local;
+                })
+                .reduce(new long[colWords], (x, y) -> {
+                    long[] z = new long[colWords];
+                    for (int i = 0; i < colWords; i++) z[i] = x[i] | y[i];
+                    return z;
+                });
+
+        // Zero columns as a sorted index list
+        int zc = 0;
+        for (long w : colBits) zc += Long.bitCount(w);
+        int[] zeroCols = new int[zc];
+        int k = 0;
+        for (int wi = 0; wi < colWords; wi++) {
+            for (long w = colBits[wi]; w != 0; w &= w - 1) {
+                zeroCols[k++] = (wi << 6) + Long.numberOfTrailingZeros(w);
+            }
+        }
+
+        // Phase 2: row blocks in parallel; full rows via fill, others in column tiles
+        IntStream.range(0, rowWords).parallel().forEach(b -> {
+            long word = rowBits[b];
+            int r0 = b << 6, r1 = Math.min(m, r0 + 64);
+            for (int r = r0; r < r1; r++) {
+                if ((word >>> (r & 63) & 1L) != 0) g.clearRow(r);
+            }
+            for (int c0 = 0; c0 < zeroCols.length; c0 += TILE_COLS) {
+                int c1 = Math.min(zeroCols.length, c0 + TILE_COLS);
+                for (int r = r0; r < r1; r++) {
+                    if ((word >>> (r & 63) & 1L) == 0) g.clearCells(r, zeroCols, c0, c1);
+                }
+            }
+        });
+    }
+
+    public static void setZeroes(int[][] matrix) {
+        setZeroes(new JaggedGrid(matrix));
+    }
+
+    public static void setZeroes(int[] flat, int rows, int cols) {
+        setZeroes(new FlatGrid(flat, rows, cols));
+    }
+
+    public static void setZeroes(MemorySegment seg, int rows, int cols) {
+        setZeroes(new SegmentGrid(seg, rows, cols));
+    }
+
+    public static void main(String[] args) {
+        int[][] matrix = {
+                {0, 1, 2, 0},
+                {3, 4, 5, 2},
+                {1, 3, 1, 5}
+        };
+        int[][] expected = new int[3][];
+        for (int i = 0; i < 3; i++) expected[i] = matrix[i].clone();
+        SetMatrixZero.setZeroesOptimal(expected);
+        setZeroes(matrix);
+        System.out.println("Bitset result: " + Arrays.deepToString(matrix));
+        System.out.println("Matches setZeroesOptimal: " + Arrays.deepEquals(matrix, expected));
+
+        // -1 is valid data here, unlike a sentinel-based approach
+        int[][] negatives = {{-1, 2}, {0, -1}};
+        setZeroes(negatives);
+        System.out.println("With -1 values: " + Arrays.deepToString(negatives));
+
+        // Large matrix, three storage layouts
+        int n = 4_000;
+        Random rnd = new Random(41);
+        int[][] big = new int[n][n];
+        for (int[] row : big) for (int j = 0; j < n; j++) row[j] = 1 + rnd.nextInt(9);
+        for (int z = 0; z < 200; z++) big[rnd.nextInt(n)][rnd.nextInt(n)] = 0;
+
+        int[] flat = new int[n * n];
+        for (int i = 0; i < n; i++) System.arraycopy(big[i], 0, flat, i * n, n);
+        int[][] serial = new int[n][];
+        for (int i = 0; i < n; i++) serial[i] = big[i].clone();
+
+        long t0 = System.nanoTime();
+        SetMatrixZero.setZeroesOptimal(serial);
+        long serialNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        setZeroes(big);
+        long jaggedNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        setZeroes(flat, n, n);
+        long flatNs = System.nanoTime() - t0;
+
+        boolean ok = Arrays.deepEquals(big, serial);
+        for (int i = 0; i < n && ok; i++) ok = Arrays.equals(flat, i * n, (i + 1) * n, serial[i], 0, n);
+
+        long segNs;
+        try (Arena arena = Arena.ofShared()) {
+            MemorySegment seg = arena.allocate(4L * n * n);
+            for (int i = 0; i < n; i++) {
+                MemorySegment.copy(flat, i * n, seg, ValueLayout.JAVA_INT, 4L * i * n, n);
+            }
+            seg.setAtIndex(ValueLayout.JAVA_INT, 5L * n + 7, 0); // one extra zero at (5, 7)
+            t0 = System.nanoTime();
+            setZeroes(seg, n, n);
+            segNs = System.nanoTime() - t0;
+            ok &= seg.getAtIndex(ValueLayout.JAVA_INT, 5L * n + 3) == 0
+                    && seg.getAtIndex(ValueLayout.JAVA_INT, 9L * n + 7) == 0;
+        }
+
+        System.out.println("\n" + n + " x " + n + ": setZeroesOptimal " + serialNs / 1_000_000
+                + " ms | bitset int[][] " + jaggedNs / 1_000_000
+                + " ms | flat int[] " + flatNs / 1_000_000
+                + " ms | MemorySegment " + segNs / 1_000_000 + " ms | results agree: " + ok);
+    }
+}
@@ -0,0 +1,287 @@
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class PermutationSpace {
+
+    // Idea:
+    // nextPermutationBruteForce materializes all n! permutations. Instead:
+    // - a cursor steps one permutation at a time in a single reusable int[]
+    //   (same algorithm as nextPermutation, so no allocation per step)
+    // - rank(p) gives the position of p in lexicographic order and
+    //   unrank(r) builds the r-th permutation directly. Both use the
+    //   Lehmer code: digit i = how many unused values are smaller than p[i],
+    //   weighted by (n - 1 - i)!. A Fenwick tree answers "how many unused
+    //   values are smaller" and "k-th unused value" in O(log n).
+    // - a Spliterator owns a rank range [lo, hi); trySplit halves the range
+    //   and the new half starts with unrank(mid), so parallel streams can
+    //   divide the space without ever enumerating it.
+    //
+    // rank/unrank work on permutations of n distinct values (n <= 20 so
+    // that n! fits in a long). The cursor also works with duplicates.
+
+    static final int MAX_N = 20;
+    static final long[] FACT = new long[MAX_N + 1];
+
+    static {
+        FACT[0] = 1;
+        for (int i = 1; i <= MAX_N; i++) FACT[i] = FACT[i - 1] * i;
+    }
+
+    // Sorted distinct values the permutations are made of
+    private final int[] values;
+
+    public PermutationSpace(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                throw new IllegalArgumentException("rank/unrank need distinct values, duplicate: " + sorted[i]);
+            }
+        }
+        if (sorted.length > MAX_N) {
+            throw new IllegalArgumentException("n! must fit in a long, n = " + sorted.length + " > " + MAX_N);
+        }
+        this.values = sorted;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public long count() {
+        return FACT[values.length];
+    }
+
+    // -----------------------------------------------------------------
+    // Allocation-free cursor: advance() rewrites the array in place.
+    // Time Complexity: O(n) worst case, O(1) amortized per step
+    // Space Complexity: O(1)
+    // -----------------------------------------------------------------
+    static boolean advance(int[] nums) {
+        int n = nums.length;
+        int i = n - 2;
+        while (i >= 0 && nums[i] >= nums[i + 1]) i--;
+        if (i < 0) return false; // last permutation, leave it unchanged
+
+        int j = n - 1;
+        while (nums[j] <= nums[i]) j--;
+        int tmp = nums[i];
+        nums[i] = nums[j];
+        nums[j] = tmp;
+        for (int l = i + 1, r = n - 1; l < r; l++, r--) {
+            tmp = nums[l];
+            nums[l] = nums[r];
+            nums[r] = tmp;
+        }
+        return true;
+    }
+
+    // -----------------------------------------------------------------
+    // Fenwick tree over positions 1..n, counts of unused values
+    // -----------------------------------------------------------------
+    private static void fenwickFillOnes(int[] tree) {
+        int n = tree.length - 1;
+        for (int i = 1; i <= n; i++) {
+            tree[i] += 1;
+            int parent = i + (i & -i);
+            if (parent <= n) tree[parent] += tree[i]; // O(n) build
+        }
+    }
+
+    private static void fenwickAdd(int[] tree, int i, int delta) {
+        for (; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    private static int fenwickPrefix(int[] tree, int i) {
+        int s = 0;
+        for (; i > 0; i -= i & -i) s += tree[i];
+        return s;
+    }
+
+    // Smallest position whose prefix sum reaches k (k >= 1), binary lifting
+    private static int fenwickFind(int[] tree, int k) {
+        int pos = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            if (pos + step < tree.length && tree[pos + step] < k) {
+                pos += step;
+                k -= tree[pos];
+            }
+        }
+        return pos + 1;
+    }
+
+    // -----------------------------------------------------------------
+    // Lexicographic rank of perm (a permutation of `values`)
+    // Time Complexity: O(n log n)
+    // Space Complexity: O(n)
+    // -----------------------------------------------------------------
+    public long rank(int[] perm) {
+        int n = values.length;
+        if (perm.length != n) throw new IllegalArgumentException("Expected length " + n + ", got " + perm.length);
+        int[] tree = new int[n + 1];
+        fenwickFillOnes(tree);
+
+        boolean[] used = new boolean[n];
+        long rank = 0;
+        for (int i = 0; i < n; i++) {
+            int idx = Arrays.binarySearch(values, perm[i]);
+            if (idx < 0) throw new IllegalArgumentException("Value not in permutation space: " + perm[i]);
+            if (used[idx]) throw new IllegalArgumentException("Value used twice: " + perm[i]);
+            used[idx] = true;
+            int smallerUnused = fenwickPrefix(tree, idx); // unused values with index < idx
+            rank += smallerUnused * FACT[n - 1 - i];
+            fenwickAdd(tree, idx + 1, -1);
+        }
+        return rank;
+    }
+
+    // -----------------------------------------------------------------
+    // Writes the rank-th permutation into out
+    // Time Complexity: O(n log n)
+    // Space Complexity: O(n)
+    // -----------------------------------------------------------------
+    public void unrank(long rank, int[] out) {
+        int n = values.length;
+        if (rank < 0 || rank >= FACT[n]) throw new IllegalArgumentException("Rank out of range: " + rank);
+        int[] tree = new int[n + 1];
+        fenwickFillOnes(tree);
+
+        for (int i = 0; i < n; i++) {
+            long f = FACT[n - 1 - i];
+            int digit = (int) (rank / f);
+            rank %= f;
+            int pos = fenwickFind(tree, digit + 1); // (digit+1)-th unused value
+            out[i] = values[pos - 1];
+            fenwickAdd(tree, pos, -1);
+        }
+    }
+
+    // -----------------------------------------------------------------
+    // Spliterator over ranks [lo, hi). The consumer receives the same
+    // buffer on every call - copy it if it must outlive the callback.
+    // -----------------------------------------------------------------
+    final class RankSpliterator implements Spliterator<int[]> {
+        private long lo;
+        private final long hi;
+        private int[] current; // created lazily in the worker that runs us
+
+        RankSpliterator(long lo, long hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super int[]> action) {
+            if (lo >= hi) return false;
+            if (current == null) {
+                current = new int[values.length];
+                unrank(lo, current);
+            } else {
+                advance(current);
+            }
+            lo++;
+            action.accept(current);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super int[]> action) {
+            while (tryAdvance(action)) {
+                // tight loop, one in-place step per permutation
+            }
+        }
+
+        @Override
+        public Spliterator<int[]> trySplit() {
+            if (current != null || hi - lo < 2) return null; // only split before starting
+            long mid = lo + (hi - lo) / 2;
+            RankSpliterator prefix = new RankSpliterator(lo, mid);
+            lo = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return hi - lo;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL; // the element is a mutated buffer
+        }
+    }
+
+    public Spliterator<int[]> spliterator(long fromRank, long toRank) {
+        return new RankSpliterator(fromRank, toRank);
+    }
+
+    // Every permutation as its own array: safe to collect, sort or keep
+    public Stream<int[]> stream(boolean parallel) {
+        return sharedBufferStream(parallel).map(int[]::clone);
+    }
+
+    // No allocation per permutation: each worker passes one buffer that it
+    // rewrites in place. Only for stateless pipelines (filter, count,
+    // forEach); anything that keeps elements sees n! references to it.
+    public Stream<int[]> sharedBufferStream(boolean parallel) {
+        return StreamSupport.stream(new RankSpliterator(0, count()), parallel);
+    }
+
+    public static void main(String[] args) {
+        PermutationSpace space = new PermutationSpace(new int[]{3, 1, 2});
+        int[] p = {1, 2, 3};
+        System.out.print("Cursor over {1, 2, 3}: ");
+        do {
+            System.out.print(Arrays.toString(p) + "@" + space.rank(p) + " ");
+        } while (advance(p));
+        System.out.println();
+
+        int[] out = new int[3];
+        space.unrank(4, out);
+        System.out.println("unrank(4) = " + Arrays.toString(out));
+
+        // Cursor matches NextPermutation.nextPermutation, duplicates included
+        int[] a = {1, 1, 5}, b = {1, 1, 5};
+        advance(a);
+        new NextPermutation().nextPermutation(b);
+        System.out.println("{1, 1, 5} -> cursor " + Arrays.toString(a) + ", nextPermutation " + Arrays.toString(b));
+
+        System.out.println("stream() collects distinct arrays: "
+                + space.stream(false).map(Arrays::toString).toList());
+        try {
+            space.rank(new int[]{1, 1, 3});
+        } catch (IllegalArgumentException e) {
+            System.out.println("rank({1, 1, 3}) rejected: " + e.getMessage());
+        }
+
+        // rank/unrank round trip for n = 20
+        int n = 20;
+        int[] vals = new int[n];
+        for (int i = 0; i < n; i++) vals[i] = i * 7;
+        PermutationSpace big = new PermutationSpace(vals);
+        long r = 1_234_567_890_123_456L;
+        int[] perm = new int[n];
+        big.unrank(r, perm);
+        System.out.println("\nn = 20: unrank(" + r + ") -> rank " + big.rank(perm) + " (20! = " + big.count() + ")");
+
+        // Parallel enumeration of 11! permutations, no List<int[]>
+        int m = 11;
+        int[] base = new int[m];
+        for (int i = 0; i < m; i++) base[i] = i;
+        PermutationSpace space11 = new PermutationSpace(base);
+
+        long t0 = System.nanoTime();
+        long serialCount = space11.sharedBufferStream(false).filter(q -> q[0] < q[m - 1]).count();
+        long serialNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        long parallelCount = space11.sharedBufferStream(true).filter(q -> q[0] < q[m - 1]).count();
+        long parallelNs = System.nanoTime() - t0;
+
+        System.out.println("11! = " + space11.count() + " permutations, half have p[0] < p[last]: serial "
+                + serialCount + " in " + serialNs / 1_000_000 + " ms, parallel " + parallelCount + " in "
+                + parallelNs / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,310 @@
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+public class SmallAlphabetSort {
+
+    // ---------------------------------------------
+    // Idea: SortArrayOfZeroOneTwo works on ArrayList<Integer>, i.e. 16+ bytes
+    // and a pointer chase per element. For a column with at most 256
+    // distinct symbols a sort is really a histogram:
+    //
+    // 1. Histogram-then-fill: count each symbol (per-chunk local counts in
+    //    parallel, then summed), then write each symbol's run. Output chunks
+    //    are filled in parallel, each one only touching the runs it overlaps.
+    //    Works on byte[] (unsigned symbols), int[] (values in [0, alphabet))
+    //    and byte MemorySegment (runs written with MemorySegment.fill).
+    // 2. Dutch flag: in place, one pass, for three symbols (< pivot, == pivot,
+    //    > pivot). Same as sortOptimal, without boxing.
+    // 3. Stable counting sort: returns the sorted order as indices, so
+    //    payload columns can be permuted along with the keys. Parallel
+    //    version: chunk c writes symbol s starting at
+    //    (all smaller symbols) + (symbol s in chunks before c), which keeps
+    //    equal keys in input order.
+    // ---------------------------------------------
+    static final int MAX_ALPHABET = 256;
+    static final int PARALLEL_CHUNK = 1 << 16;
+
+    private static int chunks(long n) {
+        return (int) Math.max(1, (n + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK);
+    }
+
+    private static void checkAlphabet(int alphabet) {
+        if (alphabet < 1 || alphabet > MAX_ALPHABET) {
+            throw new IllegalArgumentException("Alphabet size must be in [1, " + MAX_ALPHABET + "], got " + alphabet);
+        }
+    }
+
+    private static int symbol(int value, int alphabet) {
+        if (value < 0 || value >= alphabet) {
+            throw new IllegalArgumentException("Value " + value + " outside alphabet [0, " + alphabet + ")");
+        }
+        return value;
+    }
+
+    // ---------------------------------------------
+    // Histograms (per chunk, then summed)
+    // ---------------------------------------------
+    public static long[] histogram(byte[] a) {
+        return IntStream.range(0, chunks(a.length)).parallel()
+                .mapToObj(c -> {
+                    long[] h = new long[MAX_ALPHABET];
+                    int end = (int) Math.min(a.length, (long) (c + 1) * PARALLEL_CHUNK);
+                    for (int i = c * PARALLEL_CHUNK; i < end; i++) h[a[i] & 0xFF]++;
+                    return h;
+                })
+                .reduce(new long[MAX_ALPHABET], SmallAlphabetSort::add);
+    }
+
+    public static long[] histogram(int[] a, int alphabet) {
+        checkAlphabet(alphabet);
+        return IntStream.range(0, chunks(a.length)).parallel()
+                .mapToObj(c -> {
+                    long[] h = new long[alphabet];
+                    int end = (int) Math.min(a.length, (long) (c + 1) * PARALLEL_CHUNK);
+                    for (int i = c * PARALLEL_CHUNK; i < end; i++) h[symbol(a[i], alphabet)]++;
+                    return h;
+                })
+                .reduce(new long[alphabet], SmallAlphabetSort::add);
+    }
+
+    public static long[] histogram(MemorySegment seg) {
+        long n = seg.byteSize();
+        return IntStream.range(0, chunks(n)).parallel()
+                .mapToObj(c -> {
+                    long[] h = new long[MAX_ALPHABET];
+                    long end = Math.min(n, (long) (c + 1) * PARALLEL_CHUNK);
+                    for (long i = (long) c * PARALLEL_CHUNK; i < end; i++) {
+                        h[seg.get(ValueLayout.JAVA_BYTE, i) & 0xFF]++;
+                    }
+                    return h;
+                })
+                .reduce(new long[MAX_ALPHABET], SmallAlphabetSort::add);
+    }
+
+    private static long[] add(long[] x, long[] y) {
+        long[] z = new long[x.length];
+        for (int i = 0; i < x.length; i++) z[i] = x[i] + y[i];
+        return z;
+    }
+
+    // Run boundaries: symbol s occupies [starts[s], starts[s + 1])
+    private static long[] runStarts(long[] hist) {
+        long[] starts = new long[hist.length + 1];
+        for (int s = 0; s < hist.length; s++) starts[s + 1] = starts[s] + hist[s];
+        return starts;
+    }
+
+    // Calls fill(symbol, from, to) for every run piece inside output chunk c
+    private interface RunWriter {
+        void fill(int symbol, long from, long to);
+    }
+
+    private static void fillRuns(long[] starts, long n, RunWriter writer) {
+        IntStream.range(0, chunks(n)).parallel().forEach(c -> {
+            long lo = (long) c * PARALLEL_CHUNK, hi = Math.min(n, lo + PARALLEL_CHUNK);
+            for (int s = 0; s + 1 < starts.length; s++) {
+                long from = Math.max(lo, starts[s]), to = Math.min(hi, starts[s + 1]);
+                if (from < to) writer.fill(s, from, to);
+            }
+        });
+    }
+
+    // ---------------------------------------------
+    // Histogram-then-fill sorts
+    // Time Complexity: O(n / p + alphabet * n / CHUNK)
+    // Space Complexity: O(alphabet) per chunk
+    // ---------------------------------------------
+    public static void sort(byte[] a) {
+        long[] starts = runStarts(histogram(a));
+        fillRuns(starts, a.length, (s, from, to) -> Arrays.fill(a, (int) from, (int) to, (byte) s));
+    }
+
+    public static void sort(int[] a, int alphabet) {
+        long[] starts = runStarts(histogram(a, alphabet));
+        fillRuns(starts, a.length, (s, from, to) -> Arrays.fill(a, (int) from, (int) to, s));
+    }
+
+    public static void sort(MemorySegment seg) {
+        long[] starts = runStarts(histogram(seg));
+        fillRuns(starts, seg.byteSize(), (s, from, to) -> seg.asSlice(from, to - from).fill((byte) s));
+    }
+
+    // ---------------------------------------------
+    // Dutch National Flag, in place: < pivot | == pivot | > pivot
+    // For three symbols x < y < z, dutchFlag(a, y) sorts the array.
+    // Time Complexity: O(n), single pass
+    // Space Complexity: O(1)
+    // ---------------------------------------------
+    public static void dutchFlag(int[] a, int pivot) {
+        int low = 0, mid = 0, high = a.length - 1;
+        while (mid <= high) {
+            int v = a[mid];
+            if (v < pivot) {
+                a[mid++] = a[low];
+                a[low++] = v;
+            } else if (v == pivot) {
+                mid++;
+            } else {
+                a[mid] = a[high];
+                a[high--] = v;
+            }
+        }
+    }
+
+    // Bytes compared as unsigned symbols 0..255
+    public static void dutchFlag(byte[] a, int pivot) {
+        int low = 0, mid = 0, high = a.length - 1;
+        while (mid <= high) {
+            byte v = a[mid];
+            int s = v & 0xFF;
+            if (s < pivot) {
+                a[mid++] = a[low];
+                a[low++] = v;
+            } else if (s == pivot) {
+                mid++;
+            } else {
+                a[mid] = a[high];
+                a[high--] = v;
+            }
+        }
+    }
+
+    // ---------------------------------------------
+    // Stable counting sort: order[r] = index of the r-th key in sorted order,
+    // equal keys keep their input order.
+    // Time Complexity: O(n / p + alphabet * chunks)
+    // Space Complexity: O(n) for the order, O(alphabet * chunks) offsets
+    // ---------------------------------------------
+    public static int[] stableOrder(byte[] keys) {
+        return stableOrder(keys.length, MAX_ALPHABET, i -> keys[i] & 0xFF);
+    }
+
+    public static int[] stableOrder(int[] keys, int alphabet) {
+        checkAlphabet(alphabet);
+        return stableOrder(keys.length, alphabet, i -> symbol(keys[i], alphabet));
+    }
+
+    private static int[] stableOrder(int n, int alphabet, IntUnaryOperator key) {
+        int chunks = chunks(n);
+        int[][] counts = new int[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] h = new int[alphabet];
+            int end = (int) Math.min(n, (long) (c + 1) * PARALLEL_CHUNK);
+            for (int i = c * PARALLEL_CHUNK; i < end; i++) h[key.applyAsInt(i)]++;
+            counts[c] = h;
+        });
+
+        // Exclusive prefix: symbol-major, then chunk order
+        int next = 0;
+        for (int s = 0; s < alphabet; s++) {
+            for (int c = 0; c < chunks; c++) {
+                int cnt = counts[c][s];
+                counts[c][s] = next;
+                next += cnt;
+            }
+        }
+
+        int[] order = new int[n];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] pos = counts[c];
+            int end = (int) Math.min(n, (long) (c + 1) * PARALLEL_CHUNK);
+            for (int i = c * PARALLEL_CHUNK; i < end; i++) order[pos[key.applyAsInt(i)]++] = i;
+        });
+        return order;
+    }
+
+    // Sorts keys and permutes payload the same way (stable)
+    public static void stableSort(int[] keys, int alphabet, int[] payload) {
+        if (payload.length != keys.length) {
+            throw new IllegalArgumentException("Payload length " + payload.length + " != keys length " + keys.length);
+        }
+        int[] order = stableOrder(keys, alphabet);
+        int[] k = keys.clone(), p = payload.clone();
+        IntStream.range(0, keys.length).parallel().forEach(r -> {
+            keys[r] = k[order[r]];
+            payload[r] = p[order[r]];
+        });
+    }
+
+    // ---------------------------------------------
+    // Main method
+    // ---------------------------------------------
+    public static void main(String[] args) {
+        int[] small = {0, 2, 1, 2, 0, 1};
+        int[] flag = small.clone();
+        dutchFlag(flag, 1);
+        int[] counted = small.clone();
+        sort(counted, 3);
+        System.out.println("Original: " + Arrays.toString(small));
+        System.out.println("Dutch flag: " + Arrays.toString(flag) + ", histogram sort: " + Arrays.toString(counted));
+
+        int[] keys = {2, 0, 1, 0, 2, 1};
+        int[] rowIds = {10, 11, 12, 13, 14, 15};
+        stableSort(keys, 3, rowIds);
+        System.out.println("Stable sort with payload: keys " + Arrays.toString(keys) + ", row ids " + Arrays.toString(rowIds));
+
+        // Large three-valued column
+        int n = 5_000_000;
+        Random rnd = new Random(42);
+        byte[] bytes = new byte[n];
+        for (int i = 0; i < n; i++) bytes[i] = (byte) rnd.nextInt(3);
+        int[] ints = new int[n];
+        for (int i = 0; i < n; i++) ints[i] = bytes[i];
+        ArrayList<Integer> list = new ArrayList<>(n);
+        for (int x : ints) list.add(x);
+
+        long t0 = System.nanoTime();
+        SortArrayOfZeroOneTwo.sortOptimal(list);
+        long listNs = System.nanoTime() - t0;
+
+        int[] flagInts = ints.clone();
+        t0 = System.nanoTime();
+        dutchFlag(flagInts, 1);
+        long flagNs = System.nanoTime() - t0;
+
+        int[] histInts = ints.clone();
+        t0 = System.nanoTime();
+        sort(histInts, 3);
+        long histIntNs = System.nanoTime() - t0;
+
+        byte[] histBytes = bytes.clone();
+        t0 = System.nanoTime();
+        sort(histBytes);
+        long histByteNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        int[] order = stableOrder(bytes);
+        long stableNs = System.nanoTime() - t0;
+
+        boolean ok = Arrays.equals(flagInts, histInts);
+        for (int i = 0; i < n && ok; i += 101) {
+            ok = list.get(i) == histInts[i] && histBytes[i] == histInts[i] && bytes[order[i]] == histInts[i];
+        }
+        for (int i = 1; i < n && ok; i++) ok = bytes[order[i]] != bytes[order[i - 1]] || order[i] > order[i - 1];
+
+        long segNs;
+        try (Arena arena = Arena.ofShared()) {
+            MemorySegment seg = arena.allocate(n);
+            MemorySegment.copy(bytes, 0, seg, ValueLayout.JAVA_BYTE, 0, n);
+            t0 = System.nanoTime();
+            sort(seg);
+            segNs = System.nanoTime() - t0;
+            for (int i = 0; i < n && ok; i += 101) ok = seg.get(ValueLayout.JAVA_BYTE, i) == histBytes[i];
+        }
+
+        System.out.println("\nn = " + n + ", symbols {0, 1, 2}");
+        System.out.println("sortOptimal (ArrayList<Integer>): " + listNs / 1_000_000 + " ms");
+        System.out.println("dutchFlag int[]                 : " + flagNs / 1_000_000 + " ms");
+        System.out.println("histogram sort int[]            : " + histIntNs / 1_000_000 + " ms");
+        System.out.println("histogram sort byte[]           : " + histByteNs / 1_000_000 + " ms");
+        System.out.println("histogram sort MemorySegment    : " + segNs / 1_000_000 + " ms");
+        System.out.println("stable order byte[]             : " + stableNs / 1_000_000 + " ms");
+        System.out.println("All agree, order is stable: " + ok);
+    }
+}
@@ -0,0 +1,331 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class SpiralTraversal {
+
+    // Idea:
+    // MatrixSpiral.spiralOrder boxes every cell into a List<Integer>.
+    // The spiral is a fixed sequence of straight segments, so:
+    // - layer L (0-based) has bounds top = L, left = L, bottom = rows-1-L,
+    //   right = cols-1-L and is made of at most 4 segments:
+    //     top row    (left -> right)         w     cells
+    //     right col  (top+1 -> bottom)       h - 1 cells
+    //     bottom row (right-1 -> left)       w - 1 cells (only if h > 1)
+    //     left col   (bottom-1 -> top+1)     h - 2 cells (only if w > 1)
+    //   with w = cols - 2L, h = rows - 2L.
+    // - every layer before the last one is a full ring, so the number of
+    //   cells before layer L is L * (2 * (rows + cols) - 4) - 4 * L * (L - 1).
+    //   Binary search on L gives the layer of spiral index k; the segment and
+    //   offset follow directly. That is the k -> (row, col) mapping, and lets a
+    //   cursor start anywhere without walking the earlier cells.
+    //
+    // - SpiralCursor: PrimitiveIterator.OfInt, one segment at a time, no boxing
+    // - spiralInto: bulk copy, top rows via System.arraycopy
+    // - spiralIntoParallel: each worker seeks to its own slice of the spiral
+
+    static final int PARALLEL_CHUNK = 1 << 16;
+
+    // Cells before layer `layer` (all earlier layers are full rings)
+    static long cellsBefore(int rows, int cols, long layer) {
+        return layer * (2L * (rows + cols) - 4) - 4 * layer * (layer - 1);
+    }
+
+    // Layer holding spiral index k (0 <= k < rows * cols)
+    // Time Complexity: O(log min(rows, cols))
+    static int layerOf(int rows, int cols, long k) {
+        int lo = 0, hi = (Math.min(rows, cols) + 1) / 2 - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (cellsBefore(rows, cols, mid) <= k) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    // Length of segment `side` (0..3) of a layer with width w and height h
+    static int segmentLength(int w, int h, int side) {
+        switch (side) {
+            case 0:
+                return w;
+            case 1:
+                return h - 1;
+            case 2:
+                return h > 1 ? w - 1 : 0;
+            default:
+                return w > 1 ? Math.max(0, h - 2) : 0;
+        }
+    }
+
+    // -----------------------------------------------------------------
+    // k -> (row, col): writes the cell of spiral index k into rc[0], rc[1]
+    // Time Complexity: O(log min(rows, cols))
+    // Space Complexity: O(1)
+    // -----------------------------------------------------------------
+    public static void cellAt(int rows, int cols, long k, int[] rc) {
+        if (k < 0 || k >= (long) rows * cols) {
+            throw new IndexOutOfBoundsException("Spiral index " + k + " out of bounds for " + rows + " x " + cols);
+        }
+        int layer = layerOf(rows, cols, k);
+        int w = cols - 2 * layer, h = rows - 2 * layer;
+        int t = layer, l = layer, b = rows - 1 - layer, r = cols - 1 - layer;
+        int off = (int) (k - cellsBefore(rows, cols, layer));
+
+        if (off < w) {
+            rc[0] = t;
+            rc[1] = l + off;
+            return;
+        }
+        off -= w;
+        if (off < h - 1) {
+            rc[0] = t + 1 + off;
+            rc[1] = r;
+            return;
+        }
+        off -= h - 1;
+        if (off < segmentLength(w, h, 2)) {
+            rc[0] = b;
+            rc[1] = r - 1 - off;
+            return;
+        }
+        off -= segmentLength(w, h, 2);
+        rc[0] = b - 1 - off;
+        rc[1] = l;
+    }
+
+    // -----------------------------------------------------------------
+    // Spiral cursor over [from, to). No allocation after construction.
+    // -----------------------------------------------------------------
+    public static final class SpiralCursor implements PrimitiveIterator.OfInt {
+        private final int[][] m;
+        private final int rows, cols;
+        private long pos;
+        private final long end;
+
+        // Current segment: next cell (i, j), step (di, dj), cells left in it
+        private int layer, side;
+        private int i, j, di, dj, left;
+
+        public SpiralCursor(int[][] matrix) {
+            this(matrix, 0, (long) matrix.length * (matrix.length == 0 ? 0 : matrix[0].length));
+        }
+
+        public SpiralCursor(int[][] matrix, long from, long to) {
+            m = matrix;
+            rows = matrix.length;
+            cols = rows == 0 ? 0 : matrix[0].length;
+            long total = (long) rows * cols;
+            if (from < 0 || to > total || from > to) {
+                throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for " + total + " cells");
+            }
+            pos = from;
+            end = to;
+            if (from < to) seek(from);
+        }
+
+        private void seek(long k) {
+            layer = layerOf(rows, cols, k);
+            int w = cols - 2 * layer, h = rows - 2 * layer;
+            int off = (int) (k - cellsBefore(rows, cols, layer));
+            side = 0;
+            while (off >= segmentLength(w, h, side)) {
+                off -= segmentLength(w, h, side);
+                side++;
+            }
+            loadSegment(off);
+        }
+
+        // Point (i, j, di, dj, left) at offset `off` of segment (layer, side)
+        private void loadSegment(int off) {
+            int w = cols - 2 * layer, h = rows - 2 * layer;
+            int t = layer, l = layer, b = rows - 1 - layer, r = cols - 1 - layer;
+            switch (side) {
+                case 0:
+                    i = t; j = l; di = 0; dj = 1;
+                    break;
+                case 1:
+                    i = t + 1; j = r; di = 1; dj = 0;
+                    break;
+                case 2:
+                    i = b; j = r - 1; di = 0; dj = -1;
+                    break;
+                default:
+                    i = b - 1; j = l; di = -1; dj = 0;
+                    break;
+            }
+            i += di * off;
+            j += dj * off;
+            left = segmentLength(w, h, side) - off;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pos < end;
+        }
+
+        @Override
+        public int nextInt() {
+            if (pos >= end) throw new NoSuchElementException();
+            while (left == 0) { // next non-empty segment
+                if (++side == 4) {
+                    side = 0;
+                    layer++;
+                }
+                loadSegment(0);
+            }
+            int v = m[i][j];
+            i += di;
+            j += dj;
+            left--;
+            pos++;
+            return v;
+        }
+    }
+
+    // -----------------------------------------------------------------
+    // Bulk copy of the whole spiral into out[offset ..]
+    // Top rows are contiguous in memory -> System.arraycopy. Bottom rows
+    // are copied the same way and reversed inside out (still cache-hot).
+    // Time Complexity: O(m * n)
+    // Space Complexity: O(1)
+    // -----------------------------------------------------------------
+    public static void spiralInto(int[][] matrix, int[] out, int offset) {
+        int rows = matrix.length;
+        if (rows == 0) return;
+        int cols = matrix[0].length;
+        if ((long) rows * cols > out.length - offset) {
+            throw new IllegalArgumentException("out needs " + (long) rows * cols + " slots after offset " + offset);
+        }
+        int p = offset;
+        int top = 0, left = 0, bottom = rows - 1, right = cols - 1;
+        while (top <= bottom && left <= right) {
+            int w = right - left + 1;
+            System.arraycopy(matrix[top], left, out, p, w);
+            p += w;
+            top++;
+
+            for (int i = top; i <= bottom; i++) out[p++] = matrix[i][right];
+            right--;
+
+            if (top <= bottom && left <= right) {
+                int len = right - left + 1;
+                System.arraycopy(matrix[bottom], left, out, p, len);
+                reverse(out, p, p + len - 1);
+                p += len;
+            }
+            bottom--;
+
+            if (left <= right) {
+                for (int i = bottom; i >= top; i--) out[p++] = matrix[i][left];
+            }
+            left++;
+        }
+    }
+
+    public static void spiralInto(int[][] matrix, int[] out) {
+        spiralInto(matrix, out, 0);
+    }
+
+    private static void reverse(int[] a, int i, int j) {
+        while (i < j) {
+            int t = a[i];
+            a[i++] = a[j];
+            a[j--] = t;
+        }
+    }
+
+    // -----------------------------------------------------------------
+    // Slice [from, to) of the spiral into out[offset ..]. Independent of
+    // every other slice, so workers can split the spiral between them.
+    // Time Complexity: O(log min(m, n) + (to - from))
+    // -----------------------------------------------------------------
+    public static void spiralSliceInto(int[][] matrix, long from, long to, int[] out, int offset) {
+        SpiralCursor cursor = new SpiralCursor(matrix, from, to);
+        while (cursor.hasNext()) out[offset++] = cursor.nextInt();
+    }
+
+    public static void spiralIntoParallel(int[][] matrix, int[] out) {
+        int rows = matrix.length;
+        if (rows == 0) return;
+        long total = (long) rows * matrix[0].length;
+        if (total > out.length) throw new IllegalArgumentException("out needs " + total + " slots, has " + out.length);
+        int chunks = (int) ((total + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK);
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            long from = (long) c * PARALLEL_CHUNK;
+            spiralSliceInto(matrix, from, Math.min(total, from + PARALLEL_CHUNK), out, (int) from);
+        });
+    }
+
+    public static void main(String[] args) {
+        int[][] matrix = {
+                {1, 2, 3, 4},
+                {5, 6, 7, 8},
+                {9, 10, 11, 12}
+        };
+        int[] out = new int[12];
+        spiralInto(matrix, out);
+        System.out.println("spiralInto : " + Arrays.toString(out));
+
+        System.out.print("SpiralCursor: ");
+        for (SpiralCursor it = new SpiralCursor(matrix); it.hasNext(); ) System.out.print(it.nextInt() + " ");
+        System.out.println();
+
+        int[] rc = new int[2];
+        cellAt(3, 4, 7, rc);
+        System.out.println("Spiral index 7 -> (" + rc[0] + ", " + rc[1] + ") = " + matrix[rc[0]][rc[1]]);
+
+        // Every shape up to 9 x 9 against spiralOrder
+        MatrixSpiral reference = new MatrixSpiral();
+        Random rnd = new Random(41);
+        boolean ok = true;
+        for (int r = 1; r <= 9; r++) {
+            for (int c = 1; c <= 9; c++) {
+                int[][] g = new int[r][c];
+                for (int[] row : g) for (int j = 0; j < c; j++) row[j] = rnd.nextInt(1000);
+                List<Integer> expected = reference.spiralOrder(g);
+                int[] bulk = new int[r * c];
+                spiralInto(g, bulk);
+                SpiralCursor it = new SpiralCursor(g);
+                for (int k = 0; k < r * c; k++) {
+                    cellAt(r, c, k, rc);
+                    ok &= bulk[k] == expected.get(k) && it.nextInt() == bulk[k] && g[rc[0]][rc[1]] == bulk[k];
+                }
+                ok &= !it.hasNext();
+            }
+        }
+        System.out.println("All shapes up to 9 x 9 agree with spiralOrder: " + ok);
+
+        // Large matrix: boxed list vs bulk copy vs parallel slices
+        int rows = 3_000, cols = 4_000;
+        int[][] big = new int[rows][cols];
+        for (int[] row : big) for (int j = 0; j < cols; j++) row[j] = rnd.nextInt();
+
+        long t0 = System.nanoTime();
+        List<Integer> boxed = reference.spiralOrder(big);
+        long listNs = System.nanoTime() - t0;
+
+        int[] bulk = new int[rows * cols];
+        t0 = System.nanoTime();
+        spiralInto(big, bulk);
+        long bulkNs = System.nanoTime() - t0;
+
+        int[] par = new int[rows * cols];
+        t0 = System.nanoTime();
+        spiralIntoParallel(big, par);
+        long parNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        long checksum = 0;
+        for (SpiralCursor it = new SpiralCursor(big); it.hasNext(); ) checksum += it.nextInt();
+        long cursorNs = System.nanoTime() - t0;
+
+        boolean same = Arrays.equals(bulk, par);
+        for (int k = 0; k < bulk.length && same; k += 997) same = boxed.get(k) == bulk[k];
+        System.out.println("\n" + rows + " x " + cols + ": spiralOrder (List<Integer>) " + listNs / 1_000_000
+                + " ms | spiralInto " + bulkNs / 1_000_000 + " ms | spiralIntoParallel " + parNs / 1_000_000
+                + " ms | SpiralCursor " + cursorNs / 1_000_000 + " ms (checksum " + checksum + ") | agree: " + same);
+    }
+}
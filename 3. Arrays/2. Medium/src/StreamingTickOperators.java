@@ -0,0 +1,217 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+public class StreamingTickOperators {
+
+    /**
+     * Idea:
+     * LeaderInAnArray.leaderOptimal scans right-to-left and
+     * MaxProfit.maxProfitOptimal scans left-to-right, both over a finished
+     * array. For an unbounded tick stream both can be kept up to date one
+     * tick at a time:
+     *
+     * - Leaders of the prefix seen so far are exactly the elements with no
+     *   strictly greater element after them, i.e. a non-increasing monotonic
+     *   stack. A new tick pops every smaller leader and becomes a leader.
+     * - The best single trade only needs the minimum price so far and the
+     *   best profit so far (O(1) state, same as maxProfitOptimal).
+     *
+     * Ticks are handed over through a primitive single-producer /
+     * single-consumer ring buffer and drained in batches. Listeners get
+     * primitives only, so nothing is allocated per tick.
+     */
+
+    // ------------------------------------------------------------------
+    // Listeners
+    // ------------------------------------------------------------------
+    @FunctionalInterface
+    public interface LeaderListener {
+        /** A tick at position became a leader after removing `removed` older leaders. */
+        void onLeader(long position, int value, int removed);
+    }
+
+    @FunctionalInterface
+    public interface TradeListener {
+        /** The best trade improved: buy at buyPosition, sell at sellPosition. */
+        void onBestTrade(long buyPosition, long sellPosition, long profit);
+    }
+
+    // ------------------------------------------------------------------
+    // Monotonic-stack leader tracker
+    // Time Complexity: O(1) amortized per tick (each tick pushed/popped once)
+    // Space Complexity: O(number of current leaders)
+    // ------------------------------------------------------------------
+    static final class LeaderTracker {
+        private int[] values = new int[64];
+        private long[] positions = new long[64];
+        private int size;
+        private long position;
+        private final LeaderListener listener;
+
+        LeaderTracker(LeaderListener listener) {
+            this.listener = listener;
+        }
+
+        void onTick(int price) {
+            int removed = 0;
+            while (size > 0 && values[size - 1] < price) { // strictly greater kills a leader
+                size--;
+                removed++;
+            }
+            if (size == values.length) { // rare growth, amortized away
+                values = Arrays.copyOf(values, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            values[size] = price;
+            positions[size] = position;
+            size++;
+            if (listener != null) listener.onLeader(position, price, removed);
+            position++;
+        }
+
+        int leaderCount() {
+            return size;
+        }
+
+        /** Copies current leaders (in stream order) into out, returns how many. */
+        int leadersInto(int[] out) {
+            int len = Math.min(size, out.length);
+            System.arraycopy(values, 0, out, 0, len);
+            return len;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Best-trade tracker
+    // Time Complexity: O(1) per tick
+    // Space Complexity: O(1)
+    // ------------------------------------------------------------------
+    static final class BestTradeTracker {
+        private int minPrice = Integer.MAX_VALUE;
+        private long minPosition = -1;
+        private long bestProfit;
+        private long bestBuy = -1, bestSell = -1;
+        private long position;
+        private final TradeListener listener;
+
+        BestTradeTracker(TradeListener listener) {
+            this.listener = listener;
+        }
+
+        void onTick(int price) {
+            if (price < minPrice) {
+                minPrice = price;
+                minPosition = position;
+            } else {
+                long profit = (long) price - minPrice; // long: no overflow on extreme prices
+                if (profit > bestProfit) {
+                    bestProfit = profit;
+                    bestBuy = minPosition;
+                    bestSell = position;
+                    if (listener != null) listener.onBestTrade(bestBuy, bestSell, bestProfit);
+                }
+            }
+            position++;
+        }
+
+        long bestProfit() {
+            return bestProfit;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // SPSC ring buffer of int ticks. Capacity is a power of two so the
+    // index is (sequence & mask). head/tail are only written by one side.
+    // ------------------------------------------------------------------
+    static final class TickRing {
+        private final int[] buffer;
+        private final int mask;
+        private volatile long head; // next sequence to read (consumer)
+        private volatile long tail; // next sequence to write (producer)
+
+        TickRing(int capacityPowerOfTwo) {
+            if (Integer.bitCount(capacityPowerOfTwo) != 1) {
+                throw new IllegalArgumentException("Capacity must be a power of two: " + capacityPowerOfTwo);
+            }
+            buffer = new int[capacityPowerOfTwo];
+            mask = capacityPowerOfTwo - 1;
+        }
+
+        /** Producer side. Returns false when full. */
+        boolean offer(int tick) {
+            long t = tail;
+            if (t - head == buffer.length) return false;
+            buffer[(int) (t & mask)] = tick;
+            tail = t + 1; // volatile write publishes the slot
+            return true;
+        }
+
+        /** Consumer side. Feeds every available tick to both operators. */
+        int drainTo(LeaderTracker leaders, BestTradeTracker trades, int maxBatch) {
+            long h = head;
+            long available = Math.min(tail - h, maxBatch);
+            for (long s = h; s < h + available; s++) {
+                int tick = buffer[(int) (s & mask)];
+                if (leaders != null) leaders.onTick(tick);
+                if (trades != null) trades.onTick(tick);
+            }
+            head = h + available; // frees the slots for the producer
+            return (int) available;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] arr = {16, 17, 4, 3, 5, 2};
+        TickRing ring = new TickRing(8);
+        LeaderTracker leaders = new LeaderTracker(null);
+        BestTradeTracker trades = new BestTradeTracker(
+                (buy, sell, profit) -> System.out.println("  new best trade: buy@" + buy + " sell@" + sell + " profit " + profit));
+        for (int x : arr) ring.offer(x);
+        ring.drainTo(leaders, trades, 64);
+
+        int[] out = new int[leaders.leaderCount()];
+        leaders.leadersInto(out);
+        System.out.println("Leaders (stream): " + Arrays.toString(out)
+                + ", leaderOptimal: " + Arrays.toString(LeaderInAnArray.leaderOptimal(arr)));
+
+        int[] prices = {7, 1, 5, 3, 6, 4};
+        BestTradeTracker t2 = new BestTradeTracker(null);
+        for (int p : prices) t2.onTick(p);
+        System.out.println("Best profit (stream): " + t2.bestProfit()
+                + ", maxProfitOptimal: " + MaxProfit.maxProfitOptimal(prices));
+
+        // Tick-rate benchmark: producer thread -> ring -> consumer (this thread)
+        final int ticks = 50_000_000;
+        final int[] feed = new int[1 << 16];
+        Random rnd = new Random(23);
+        for (int i = 0; i < feed.length; i++) feed[i] = 10_000 + rnd.nextInt(1_000);
+
+        TickRing big = new TickRing(1 << 14);
+        long[] leaderEvents = new long[1];
+        LeaderTracker lt = new LeaderTracker((pos, v, removed) -> leaderEvents[0] += removed);
+        BestTradeTracker bt = new BestTradeTracker(null);
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < ticks; i++) {
+                while (!big.offer(feed[i & (feed.length - 1)])) Thread.onSpinWait();
+            }
+        });
+
+        long t0 = System.nanoTime();
+        producer.start();
+        long consumed = 0;
+        while (consumed < ticks) {
+            int got = big.drainTo(lt, bt, 4096);
+            if (got == 0) LockSupport.parkNanos(1_000);
+            consumed += got;
+        }
+        producer.join();
+        long ns = System.nanoTime() - t0;
+
+        System.out.println("\n" + ticks + " ticks in " + ns / 1_000_000 + " ms -> "
+                + (long) (ticks / (ns / 1e9)) / 1_000_000 + " M ticks/s");
+        System.out.println("leaders now: " + lt.leaderCount() + ", leaders removed: " + leaderEvents[0]
+                + ", best profit: " + bt.bestProfit());
+    }
+}
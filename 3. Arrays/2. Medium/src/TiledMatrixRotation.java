@@ -0,0 +1,360 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+public class TiledMatrixRotation {
+
+    /**
+     * Idea:
+     * RotateMatrix.rotateOptimal transposes with a plain double loop. For a
+     * large matrix, matrix[j][i] jumps to a different row on every step, so
+     * almost every access misses the cache.
+     *
+     * Cache-oblivious fix: split the matrix recursively in half along the
+     * longer side until a block is at most TILE x TILE. Such a block (and
+     * its mirror across the diagonal) fits in L1, whatever the cache size.
+     * Blocks never overlap, so the halves run in parallel on ForkJoin.
+     *
+     * Rotations are built from that:
+     *   90  clockwise        = transpose, then reverse every row
+     *   180                  = reverse the whole row-major buffer
+     *   270 (90 counter-cw)  = transpose, then reverse the order of rows
+     *
+     * In-place versions work on square matrices (int[][] or flat row-major
+     * int[]). Out-of-place versions work on any rows x cols flat buffer.
+     */
+    static final int TILE = 32;
+    static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    // =====================================================================
+    // In-place transpose, flat row-major n x n
+    // =====================================================================
+
+    /**
+     * Transposes the square block with top-left corner (d, d) and side n.
+     */
+    static final class DiagTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int[] a;
+        final int stride, d, n;
+
+        DiagTask(int[] a, int stride, int d, int n) {
+            this.a = a;
+            this.stride = stride;
+            this.d = d;
+            this.n = n;
+        }
+
+        @Override
+        protected void compute() {
+            if (n <= TILE) {
+                for (int i = d; i < d + n; i++) {
+                    for (int j = i + 1; j < d + n; j++) {
+                        int t = a[i * stride + j];
+                        a[i * stride + j] = a[j * stride + i];
+                        a[j * stride + i] = t;
+                    }
+                }
+                return;
+            }
+            int h = n / 2;
+            invokeAll(new DiagTask(a, stride, d, h),
+                    new DiagTask(a, stride, d + h, n - h),
+                    new SwapTask(a, stride, d, d + h, h, n - h));
+        }
+    }
+
+    /**
+     * Swaps block (r, c, h x w) with the transpose of block (c, r, w x h).
+     * Both blocks are off the diagonal, so they never overlap.
+     */
+    static final class SwapTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int[] a;
+        final int stride, r, c, h, w;
+
+        SwapTask(int[] a, int stride, int r, int c, int h, int w) {
+            this.a = a;
+            this.stride = stride;
+            this.r = r;
+            this.c = c;
+            this.h = h;
+            this.w = w;
+        }
+
+        @Override
+        protected void compute() {
+            if (h <= TILE && w <= TILE) {
+                for (int i = r; i < r + h; i++) {
+                    for (int j = c; j < c + w; j++) {
+                        int t = a[i * stride + j];
+                        a[i * stride + j] = a[j * stride + i];
+                        a[j * stride + i] = t;
+                    }
+                }
+                return;
+            }
+            if (h >= w) {
+                int hh = h / 2;
+                invokeAll(new SwapTask(a, stride, r, c, hh, w), new SwapTask(a, stride, r + hh, c, h - hh, w));
+            } else {
+                int hw = w / 2;
+                invokeAll(new SwapTask(a, stride, r, c, h, hw), new SwapTask(a, stride, r, c + hw, h, w - hw));
+            }
+        }
+    }
+
+    /**
+     * In-place transpose of a flat n x n matrix.
+     * Time Complexity: O(n^2 / p), O(n^2 / B) cache misses for line size B
+     * Space Complexity: O(log n) task depth
+     */
+    static void transposeInPlace(int[] a, int n) {
+        checkSquare(a.length, n);
+        POOL.invoke(new DiagTask(a, n, 0, n));
+    }
+
+    // Reverse every row of a flat rows x cols matrix, rows in parallel
+    static void reverseRows(int[] a, int rows, int cols) {
+        IntStream.range(0, rows).parallel().forEach(i -> {
+            for (int l = i * cols, r = l + cols - 1; l < r; l++, r--) {
+                int t = a[l];
+                a[l] = a[r];
+                a[r] = t;
+            }
+        });
+    }
+
+    // Swap row i with row rows-1-i, using a per-thread row buffer
+    static void reverseRowOrder(int[] a, int rows, int cols) {
+        IntStream.range(0, rows / 2).parallel().forEach(i -> {
+            int[] tmp = new int[cols];
+            int top = i * cols, bottom = (rows - 1 - i) * cols;
+            System.arraycopy(a, top, tmp, 0, cols);
+            System.arraycopy(a, bottom, a, top, cols);
+            System.arraycopy(tmp, 0, a, bottom, cols);
+        });
+    }
+
+    /**
+     * In-place 90 degree clockwise rotation of a flat n x n matrix.
+     */
+    static void rotate90InPlace(int[] a, int n) {
+        transposeInPlace(a, n);
+        reverseRows(a, n, n);
+    }
+
+    /**
+     * In-place 180 degree rotation. Works for any rows x cols buffer,
+     * because it is just the row-major buffer read backwards.
+     */
+    static void rotate180InPlace(int[] a) {
+        int length = a.length, half = length / 2;
+        IntStream.range(0, (half + 4095) / 4096).parallel().forEach(b -> {
+            for (int l = b * 4096; l < Math.min(half, (b + 1) * 4096); l++) {
+                int r = length - 1 - l;
+                int t = a[l];
+                a[l] = a[r];
+                a[r] = t;
+            }
+        });
+    }
+
+    /**
+     * In-place 270 degree clockwise (90 counter-clockwise) rotation, n x n.
+     */
+    static void rotate270InPlace(int[] a, int n) {
+        transposeInPlace(a, n);
+        reverseRowOrder(a, n, n);
+    }
+
+    // =====================================================================
+    // Out-of-place, any rows x cols (flat row-major)
+    // =====================================================================
+
+    static final int TRANSPOSE = 0, ROT90 = 1, ROT270 = 2;
+
+    /**
+     * Copies src[i0..i1) x [j0..j1) to its rotated/transposed place in dst.
+     */
+    static final class CopyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int[] src, dst;
+        final int rows, cols, kind, i0, i1, j0, j1;
+
+        CopyTask(int[] src, int[] dst, int rows, int cols, int kind, int i0, int i1, int j0, int j1) {
+            this.src = src;
+            this.dst = dst;
+            this.rows = rows;
+            this.cols = cols;
+            this.kind = kind;
+            this.i0 = i0;
+            this.i1 = i1;
+            this.j0 = j0;
+            this.j1 = j1;
+        }
+
+        @Override
+        protected void compute() {
+            int h = i1 - i0, w = j1 - j0;
+            if (h <= TILE && w <= TILE) {
+                for (int i = i0; i < i1; i++) {
+                    for (int j = j0; j < j1; j++) {
+                        int v = src[i * cols + j];
+                        // destination is cols x rows in every case
+                        switch (kind) {
+                            case TRANSPOSE: dst[j * rows + i] = v; break;
+                            case ROT90: dst[j * rows + (rows - 1 - i)] = v; break;
+                            default: dst[(cols - 1 - j) * rows + i] = v;
+                        }
+                    }
+                }
+                return;
+            }
+            if (h >= w) {
+                int m = i0 + h / 2;
+                invokeAll(new CopyTask(src, dst, rows, cols, kind, i0, m, j0, j1),
+                        new CopyTask(src, dst, rows, cols, kind, m, i1, j0, j1));
+            } else {
+                int m = j0 + w / 2;
+                invokeAll(new CopyTask(src, dst, rows, cols, kind, i0, i1, j0, m),
+                        new CopyTask(src, dst, rows, cols, kind, i0, i1, m, j1));
+            }
+        }
+    }
+
+    private static int[] copyRotated(int[] src, int rows, int cols, int kind) {
+        if ((long) rows * cols != src.length) throw new IllegalArgumentException("src must hold rows * cols values");
+        int[] dst = new int[src.length];
+        POOL.invoke(new CopyTask(src, dst, rows, cols, kind, 0, rows, 0, cols));
+        return dst;
+    }
+
+    /** Transposed copy, result is cols x rows. */
+    static int[] transpose(int[] src, int rows, int cols) {
+        return copyRotated(src, rows, cols, TRANSPOSE);
+    }
+
+    /** 90 degree clockwise copy, result is cols x rows. */
+    static int[] rotate90(int[] src, int rows, int cols) {
+        return copyRotated(src, rows, cols, ROT90);
+    }
+
+    /** 270 degree clockwise copy, result is cols x rows. */
+    static int[] rotate270(int[] src, int rows, int cols) {
+        return copyRotated(src, rows, cols, ROT270);
+    }
+
+    /** 180 degree copy, result is rows x cols. */
+    static int[] rotate180(int[] src) {
+        int[] dst = src.clone();
+        rotate180InPlace(dst);
+        return dst;
+    }
+
+    // =====================================================================
+    // int[][] (square, in place) - same tiling on a jagged matrix
+    // =====================================================================
+
+    /**
+     * Tiled in-place 90 degree clockwise rotation of a square int[][].
+     * Tiles of TILE x TILE are swapped with their mirror tile, rows of
+     * tiles run in parallel.
+     */
+    static void rotate90InPlace(int[][] m) {
+        int n = m.length;
+        for (int[] row : m) {
+            if (row.length != n) throw new IllegalArgumentException("Matrix must be square, row length " + row.length + " != " + n);
+        }
+        int tiles = (n + TILE - 1) / TILE;
+        IntStream.range(0, tiles).parallel().forEach(ti -> {
+            int i0 = ti * TILE, i1 = Math.min(n, i0 + TILE);
+            for (int tj = ti; tj < tiles; tj++) {
+                int j0 = tj * TILE, j1 = Math.min(n, j0 + TILE);
+                for (int i = i0; i < i1; i++) {
+                    for (int j = Math.max(j0, i + 1); j < j1; j++) {
+                        int t = m[i][j];
+                        m[i][j] = m[j][i];
+                        m[j][i] = t;
+                    }
+                }
+            }
+        });
+        IntStream.range(0, n).parallel().forEach(i -> {
+            int[] row = m[i];
+            for (int l = 0, r = n - 1; l < r; l++, r--) {
+                int t = row[l];
+                row[l] = row[r];
+                row[r] = t;
+            }
+        });
+    }
+
+    private static void checkSquare(int length, int n) {
+        if ((long) n * n != length) throw new IllegalArgumentException("Expected " + n + " x " + n + " values, got " + length);
+    }
+
+    // Main method: correctness on small inputs, then 1k / 4k (/ 16k) timings
+    public static void main(String[] args) {
+        int[][] arr = {{1, 2, 3}, {4, 5, 6}, {7, 8, 9}};
+        int[][] expected = RotateMatrix.rotateBrute(arr);
+        int[][] tiled = {{1, 2, 3}, {4, 5, 6}, {7, 8, 9}};
+        rotate90InPlace(tiled);
+        System.out.println("int[][] tiled 90: " + Arrays.deepToString(tiled)
+                + " matches rotateBrute: " + Arrays.deepEquals(tiled, expected));
+
+        int[] flat = {1, 2, 3, 4, 5, 6}; // 2 x 3
+        System.out.println("2x3 transpose : " + Arrays.toString(transpose(flat, 2, 3)));
+        System.out.println("2x3 rotate 90 : " + Arrays.toString(rotate90(flat, 2, 3)));
+        System.out.println("2x3 rotate 180: " + Arrays.toString(rotate180(flat)));
+        System.out.println("2x3 rotate 270: " + Arrays.toString(rotate270(flat, 2, 3)));
+
+        int[] sq = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        rotate270InPlace(sq, 3);
+        System.out.println("3x3 in-place 270: " + Arrays.toString(sq));
+
+        // 16k x 16k needs 1 GB per copy (4 copies); pass "--large" when the heap allows it
+        boolean large = args.length > 0 && args[0].equals("--large");
+        int[] sizes = large ? new int[]{1 << 10, 1 << 12, 1 << 14} : new int[]{1 << 10, 1 << 12};
+        for (int n : sizes) {
+            int[][] baseline = new int[n][n], jag = new int[n][n];
+            int[] src = new int[n * n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) baseline[i][j] = jag[i][j] = src[i * n + j] = i * 31 + j;
+            }
+            int[] f = src.clone();
+
+            long t0 = System.nanoTime();
+            RotateMatrix.rotateOptimal(baseline);
+            long naiveNs = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            rotate90InPlace(f, n);
+            long tiledNs = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            rotate90InPlace(jag);
+            long jagTiledNs = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            int[] copy = rotate90(src, n, n);
+            long copyNs = System.nanoTime() - t0;
+
+            // every variant against rotateOptimal, element by element
+            boolean ok = true;
+            for (int i = 0; i < n && ok; i++) {
+                ok = Arrays.equals(baseline[i], 0, n, f, i * n, (i + 1) * n)
+                        && Arrays.equals(baseline[i], 0, n, copy, i * n, (i + 1) * n)
+                        && Arrays.equals(baseline[i], jag[i]);
+            }
+
+            System.out.printf("n = %5d: rotateOptimal %5d ms | tiled flat in-place %5d ms | tiled int[][] %5d ms"
+                            + " | tiled out-of-place %5d ms | agree: %b%n",
+                    n, naiveNs / 1_000_000, tiledNs / 1_000_000, jagTiledNs / 1_000_000, copyNs / 1_000_000, ok);
+        }
+    }
+}
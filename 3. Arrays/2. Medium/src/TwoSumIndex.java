@@ -0,0 +1,235 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class TwoSumIndex {
+
+    // ----------------------------------------
+    // Idea: TwoSumProblem rebuilds a HashMap (or re-sorts) on every call.
+    // When the array is fixed and only the target changes, build once:
+    //
+    // - value -> index map (open addressing, primitive arrays). It keeps
+    //   the first and second index of every value, so target = 2 * x can
+    //   use two different positions holding x.
+    // - sorted distinct values with their counts, for counting pairs
+    //   with two pointers (no hashing at all).
+    //
+    // Queries never touch the build structures' shape, so they are safe to
+    // run from many threads at once.
+    // ----------------------------------------
+    private final int[] arr;
+
+    // value -> (first index, second index or -1)
+    private final int[] keys;
+    private final int[] firstIdx;  // -1 = empty slot
+    private final int[] secondIdx;
+    private final int mask;
+
+    // Sorted distinct values and how many times each occurs
+    private final int[] distinct;
+    private final int[] counts;
+
+    // ----------------------------------------
+    // Build Time Complexity: O(n log n) (sort of the permutation)
+    // Space Complexity: O(n)
+    // ----------------------------------------
+    static final int MAX_CAPACITY = 1 << 30;
+
+    // Power of two with room for expected keys at load factor <= 0.5, computed
+    // in long so it cannot wrap (same rule as PrefixHashIndex.capacityFor).
+    // Inputs that would need more than MAX_CAPACITY slots are rejected.
+    static int capacityFor(int expected) {
+        if (expected > MAX_CAPACITY / 2) {
+            throw new IllegalArgumentException("At most " + MAX_CAPACITY / 2 + " keys, got " + expected);
+        }
+        return (int) (Long.highestOneBit(Math.max(2L, expected) * 2 - 1) << 1);
+    }
+
+    public TwoSumIndex(int[] nums) {
+        arr = nums.clone();
+        int n = arr.length;
+
+        int cap = capacityFor(n);
+        keys = new int[cap];
+        firstIdx = new int[cap];
+        secondIdx = new int[cap];
+        Arrays.fill(firstIdx, -1);
+        mask = cap - 1;
+        for (int i = 0; i < n; i++) {
+            int s = find(arr[i]);
+            if (firstIdx[s] < 0) {
+                keys[s] = arr[i];
+                firstIdx[s] = i;
+                secondIdx[s] = -1;
+            } else if (secondIdx[s] < 0) {
+                secondIdx[s] = i;
+            }
+        }
+
+        // Sorted permutation -> distinct values + counts
+        int[] sorted = arr.clone();
+        Arrays.sort(sorted);
+        int d = 0;
+        int[] dv = new int[n], dc = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (d > 0 && dv[d - 1] == sorted[i]) {
+                dc[d - 1]++;
+            } else {
+                dv[d] = sorted[i];
+                dc[d] = 1;
+                d++;
+            }
+        }
+        distinct = Arrays.copyOf(dv, d);
+        counts = Arrays.copyOf(dc, d);
+    }
+
+    // Slot holding key, or the empty slot where it would go
+    private int find(int key) {
+        int h = key * 0x9E3779B9;
+        int s = (h ^ (h >>> 16)) & mask;
+        while (firstIdx[s] >= 0 && keys[s] != key) s = (s + 1) & mask;
+        return s;
+    }
+
+    // ----------------------------------------
+    // Indices {i, j} (i < j) with arr[i] + arr[j] == target, or {-1, -1}
+    // Time Complexity: O(n) worst case, stops at the first hit
+    // Space Complexity: O(1)
+    // ----------------------------------------
+    public int[] pair(int target) {
+        int[] out = {-1, -1};
+        pairInto(target, out, 0);
+        return out;
+    }
+
+    private boolean pairInto(int target, int[] out, int offset) {
+        for (int i = 0; i < arr.length; i++) {
+            long needed = (long) target - arr[i]; // long: no overflow
+            if (needed < Integer.MIN_VALUE || needed > Integer.MAX_VALUE) continue;
+            int s = find((int) needed);
+            if (firstIdx[s] < 0) continue;
+            int j = firstIdx[s] != i ? firstIdx[s] : secondIdx[s];
+            if (j >= 0) {
+                out[offset] = Math.min(i, j);
+                out[offset + 1] = Math.max(i, j);
+                return true;
+            }
+        }
+        out[offset] = -1;
+        out[offset + 1] = -1;
+        return false;
+    }
+
+    // ----------------------------------------
+    // Number of index pairs i < j with arr[i] + arr[j] == target
+    // Two pointers over sorted distinct values.
+    // Time Complexity: O(distinct values)
+    // Space Complexity: O(1)
+    // ----------------------------------------
+    public long countPairs(int target) {
+        long total = 0;
+        int left = 0, right = distinct.length - 1;
+        while (left <= right) {
+            long sum = (long) distinct[left] + distinct[right];
+            if (sum < target) {
+                left++;
+            } else if (sum > target) {
+                right--;
+            } else {
+                if (left == right) {
+                    long c = counts[left];
+                    total += c * (c - 1) / 2; // choose two copies of the same value
+                } else {
+                    total += (long) counts[left] * counts[right];
+                }
+                left++;
+                right--;
+            }
+        }
+        return total;
+    }
+
+    // ----------------------------------------
+    // Batch APIs, targets answered in parallel
+    // ----------------------------------------
+    public int[][] pairs(int[] targets) {
+        int[][] result = new int[targets.length][];
+        IntStream.range(0, targets.length).parallel().forEach(q -> result[q] = pair(targets[q]));
+        return result;
+    }
+
+    // Flat variant: out[2q], out[2q + 1] hold the pair of targets[q]
+    public void pairsInto(int[] targets, int[] out) {
+        if (out.length < 2 * targets.length) {
+            throw new IllegalArgumentException("out needs " + 2 * targets.length + " slots, has " + out.length);
+        }
+        IntStream.range(0, targets.length).parallel().forEach(q -> pairInto(targets[q], out, 2 * q));
+    }
+
+    // Count-only: nothing is materialized per pair
+    public long[] counts(int[] targets) {
+        long[] result = new long[targets.length];
+        IntStream.range(0, targets.length).parallel().forEach(q -> result[q] = countPairs(targets[q]));
+        return result;
+    }
+
+    // ----------------------------------------
+    // Main method
+    // ----------------------------------------
+    public static void main(String[] args) {
+        int[] nums = {2, 6, 5, 8, 11, 3, 3};
+        TwoSumIndex index = new TwoSumIndex(nums);
+        int[] targets = {14, 6, 100, 11};
+        int[][] pairs = index.pairs(targets);
+        long[] counts = index.counts(targets);
+        System.out.println("Array: " + Arrays.toString(nums));
+        for (int q = 0; q < targets.length; q++) {
+            System.out.println("target " + targets[q] + " -> indices " + Arrays.toString(pairs[q])
+                    + ", pairs = " + counts[q]
+                    + ", twoSumBetterMeth2 = " + Arrays.toString(TwoSumProblem.twoSumBetterMeth2(nums, targets[q])));
+        }
+
+        // Many targets against the same array
+        int n = 200_000, queries = 2_000;
+        Random rnd = new Random(37);
+        int[] data = new int[n];
+        for (int i = 0; i < n; i++) data[i] = rnd.nextInt(10_000_000);
+        int[] many = new int[queries];
+        for (int q = 0; q < queries; q++) many[q] = rnd.nextInt(20_000_000);
+
+        long t0 = System.nanoTime();
+        int foundOld = 0;
+        for (int t : many) {
+            // Same work as twoSumBetterMeth2: a fresh HashMap per target
+            HashMap<Integer, Integer> mpp = new HashMap<>();
+            for (int x : data) {
+                if (mpp.containsKey(t - x)) {
+                    foundOld++;
+                    break;
+                }
+                mpp.put(x, 1);
+            }
+        }
+        long oldNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        TwoSumIndex idx = new TwoSumIndex(data);
+        int[] flat = new int[2 * queries];
+        idx.pairsInto(many, flat);
+        long newNs = System.nanoTime() - t0;
+        int foundNew = 0;
+        for (int q = 0; q < queries; q++) if (flat[2 * q] >= 0) foundNew++;
+
+        t0 = System.nanoTime();
+        long totalPairs = 0;
+        for (long c : idx.counts(many)) totalPairs += c;
+        long countNs = System.nanoTime() - t0;
+
+        System.out.println("\nn = " + n + ", " + queries + " targets");
+        System.out.println("HashMap per target : " + oldNs / 1_000_000 + " ms (" + foundOld + " found)");
+        System.out.println("TwoSumIndex (build + batch): " + newNs / 1_000_000 + " ms (" + foundNew + " found)");
+        System.out.println("Count-only batch   : " + countNs / 1_000_000 + " ms (" + totalPairs + " pairs total)");
+    }
+}
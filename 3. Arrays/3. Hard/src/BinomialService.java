@@ -0,0 +1,296 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class BinomialService {
+
+    // Binomial coefficients for many queries.
+    // PascalTriangle / PascalTriangle2 rebuild the rows on every call, and
+    // nCrOptimal recomputes each value in O(r). The factorial-based brute
+    // versions overflow long past 20!.
+    //
+    // Exact values:
+    // - Rows 0..66 fit in a long (C(66, 33) ~ 7.2e18, C(67, 33) does not).
+    //   They are cached in one flat long[] (row n starts at n * (n + 1) / 2),
+    //   grown lazily with Pascal's rule. A row copy is a System.arraycopy.
+    // - Rows 67..maxCachedRow spill into BigInteger half rows (the other
+    //   half is the mirror image), also grown lazily.
+    // - Anything larger is computed directly with the multiplicative formula.
+    //
+    // Modulo a prime (nested ModTable):
+    // - fact[] and invFact[] up to maxN < p: nCr = fact[n] * invFact[r] * invFact[n - r],
+    //   O(1) per query after an O(maxN) build.
+    // - Lucas' theorem for n >= p: write n and r in base p, multiply the
+    //   digit binomials. Needs the table to cover every residue (maxN = p - 1).
+    //
+    // Lookups are lock-free; growth is synchronized and published through a
+    // volatile row count, so one service can be shared by many threads.
+
+    static final int MAX_LONG_ROW = 66;
+
+    private volatile long[] flat = new long[0];
+    private volatile int longRows; // rows [0, longRows) are in flat
+
+    private final int maxCachedRow;
+    private volatile BigInteger[][] bigRows = new BigInteger[0][]; // bigRows[n - 67] = C(n, 0..n/2)
+    private volatile int bigRowsReady;
+
+    public BinomialService(int maxCachedRow) {
+        this.maxCachedRow = maxCachedRow;
+    }
+
+    public BinomialService() {
+        this(2_000);
+    }
+
+    private static int rowStart(int n) {
+        return n * (n + 1) / 2;
+    }
+
+    private void ensureLongRows(int n) {
+        if (n < longRows) return;
+        synchronized (this) {
+            int ready = longRows;
+            if (n < ready) return;
+            long[] f = Arrays.copyOf(flat, rowStart(n + 1));
+            for (int i = ready; i <= n; i++) {
+                int s = rowStart(i), prev = rowStart(i - 1);
+                f[s] = 1;
+                f[s + i] = 1;
+                for (int j = 1; j < i; j++) f[s + j] = f[prev + j - 1] + f[prev + j];
+            }
+            flat = f;
+            longRows = n + 1;
+        }
+    }
+
+    private void ensureBigRows(int n) {
+        int idx = n - MAX_LONG_ROW - 1;
+        if (idx < bigRowsReady) return;
+        synchronized (this) {
+            int ready = bigRowsReady;
+            if (idx < ready) return;
+            ensureLongRows(MAX_LONG_ROW);
+            BigInteger[][] rows = Arrays.copyOf(bigRows, idx + 1);
+            for (int k = ready; k <= idx; k++) {
+                int row = k + MAX_LONG_ROW + 1;
+                BigInteger[] half = new BigInteger[row / 2 + 1];
+                half[0] = BigInteger.ONE;
+                for (int j = 1; j < half.length; j++) {
+                    half[j] = previous(rows, row - 1, j - 1).add(previous(rows, row - 1, j));
+                }
+                rows[k] = half;
+            }
+            bigRows = rows;
+            bigRowsReady = idx + 1;
+        }
+    }
+
+    // C(n, j) from a row that is already built (long or big)
+    private BigInteger previous(BigInteger[][] rows, int n, int j) {
+        j = Math.min(j, n - j);
+        if (n <= MAX_LONG_ROW) return BigInteger.valueOf(flat[rowStart(n) + j]);
+        return rows[n - MAX_LONG_ROW - 1][j];
+    }
+
+    // -----------------------------------------------------------------
+    // Exact C(n, r), 0 when r < 0 or r > n
+    // Time Complexity: O(1) for cached rows (after growth), O(r) beyond
+    // -----------------------------------------------------------------
+    public BigInteger exact(int n, int r) {
+        if (n < 0) throw new IllegalArgumentException("n must be >= 0, got " + n);
+        if (r < 0 || r > n) return BigInteger.ZERO;
+        if (n <= MAX_LONG_ROW) return BigInteger.valueOf(exactLong(n, r));
+        r = Math.min(r, n - r);
+        if (n <= maxCachedRow) {
+            ensureBigRows(n);
+            return bigRows[n - MAX_LONG_ROW - 1][r];
+        }
+        BigInteger res = BigInteger.ONE;
+        for (int i = 0; i < r; i++) {
+            res = res.multiply(BigInteger.valueOf(n - i)).divide(BigInteger.valueOf(i + 1));
+        }
+        return res;
+    }
+
+    // Throws ArithmeticException when the value does not fit in a long
+    public long exactLong(int n, int r) {
+        if (n < 0) throw new IllegalArgumentException("n must be >= 0, got " + n);
+        if (r < 0 || r > n) return 0;
+        if (n > MAX_LONG_ROW) return exact(n, r).longValueExact();
+        ensureLongRows(n);
+        return flat[rowStart(n) + r];
+    }
+
+    // -----------------------------------------------------------------
+    // Row generator: C(n, 0..n) into out[offset..offset + n], n <= 66
+    // -----------------------------------------------------------------
+    public void rowInto(int n, long[] out, int offset) {
+        if (n < 0 || n > MAX_LONG_ROW) {
+            throw new ArithmeticException("Row " + n + " does not fit in long (max " + MAX_LONG_ROW + ")");
+        }
+        ensureLongRows(n);
+        System.arraycopy(flat, rowStart(n), out, offset, n + 1);
+    }
+
+    // Rows 0..numRows-1 back to back, out needs numRows * (numRows + 1) / 2 slots
+    public void triangleInto(int numRows, long[] out) {
+        if (numRows == 0) return;
+        rowInto(numRows - 1, out, rowStart(numRows - 1)); // grows the cache up to the last row
+        System.arraycopy(flat, 0, out, 0, rowStart(numRows));
+    }
+
+    // -----------------------------------------------------------------
+    // Factorial tables modulo a prime
+    // -----------------------------------------------------------------
+    public static final class ModTable {
+        final int p, maxN;
+        final long[] fact, invFact;
+
+        // Build Time Complexity: O(maxN + log p), Space Complexity: O(maxN)
+        public ModTable(int maxN, int p) {
+            if (p < 2 || !BigInteger.valueOf(p).isProbablePrime(30)) {
+                throw new IllegalArgumentException("Modulus must be prime, got " + p);
+            }
+            if (maxN < 0 || maxN >= p) {
+                throw new IllegalArgumentException("maxN must be in [0, p), got " + maxN + " for p = " + p);
+            }
+            this.p = p;
+            this.maxN = maxN;
+            fact = new long[maxN + 1];
+            invFact = new long[maxN + 1];
+            fact[0] = 1;
+            for (int i = 1; i <= maxN; i++) fact[i] = fact[i - 1] * i % p;
+            invFact[maxN] = pow(fact[maxN], p - 2, p); // Fermat
+            for (int i = maxN; i > 0; i--) invFact[i - 1] = invFact[i] * i % p;
+        }
+
+        // Table over every residue, as Lucas needs
+        public static ModTable forLucas(int p) {
+            return new ModTable(p - 1, p);
+        }
+
+        static long pow(long base, long exp, long mod) {
+            long result = 1;
+            base %= mod;
+            while (exp > 0) {
+                if ((exp & 1) == 1) result = result * base % mod;
+                base = base * base % mod;
+                exp >>= 1;
+            }
+            return result;
+        }
+
+        // C(n, r) mod p, O(1)
+        public long nCr(int n, int r) {
+            if (n < 0 || n > maxN) throw new IllegalArgumentException("n out of table range [0, " + maxN + "]: " + n);
+            if (r < 0 || r > n) return 0;
+            return fact[n] * invFact[r] % p * invFact[n - r] % p;
+        }
+
+        // C(n, r) mod p for any n, O(log_p n)
+        public long lucas(long n, long r) {
+            if (maxN != p - 1) throw new IllegalStateException("Lucas needs a table up to p - 1, use forLucas(p)");
+            if (n < 0) throw new IllegalArgumentException("n must be >= 0, got " + n);
+            if (r < 0 || r > n) return 0;
+            long result = 1;
+            while (n > 0 || r > 0) {
+                int ni = (int) (n % p), ri = (int) (r % p);
+                if (ri > ni) return 0;
+                result = result * nCr(ni, ri) % p;
+                n /= p;
+                r /= p;
+            }
+            return result;
+        }
+
+        // C(n, 0..n) mod p into out[offset..offset + n]
+        public void rowInto(int n, long[] out, int offset) {
+            for (int r = 0; r <= n; r++) out[offset + r] = nCr(n, r);
+        }
+    }
+
+    // Main method demonstrating the service
+    public static void main(String[] args) {
+        BinomialService service = new BinomialService();
+
+        int numRows = 5;
+        long[] tri = new long[numRows * (numRows + 1) / 2];
+        service.triangleInto(numRows, tri);
+        System.out.println("triangleInto(5): " + Arrays.toString(tri));
+        System.out.println("generateOptimal(5): " + new PascalTriangle().generateOptimal(numRows));
+
+        // Past 20! the factorial-based versions overflow
+        System.out.println("\nC(25, 12): pascalTriangleBrute " + PascalTriangle3.pascalTriangleBrute(26, 13)
+                + ", service " + service.exactLong(25, 12));
+        System.out.println("C(66, 33) = " + service.exactLong(66, 33) + " (largest row that fits in long)");
+        System.out.println("C(100, 50) = " + service.exact(100, 50));
+
+        ModTable mod = new ModTable(1_000_000, 1_000_000_007);
+        System.out.println("C(1000000, 500000) mod 1e9+7 = " + mod.nCr(1_000_000, 500_000));
+
+        ModTable lucas = ModTable.forLucas(13);
+        System.out.println("C(10^18, 100000) mod 1000003 (Lucas) = "
+                + ModTable.forLucas(1_000_003).lucas(1_000_000_000_000_000_000L, 100_000L));
+
+        // Lucas and the mod table against exact values
+        boolean ok = true;
+        BigInteger p13 = BigInteger.valueOf(13);
+        ModTable small = new ModTable(600, 1_000_000_007);
+        BigInteger bigP = BigInteger.valueOf(1_000_000_007);
+        for (int n = 0; n <= 600; n += 7) {
+            for (int r = 0; r <= n; r += 3) {
+                BigInteger e = service.exact(n, r);
+                ok &= lucas.lucas(n, r) == e.mod(p13).longValue() && small.nCr(n, r) == e.mod(bigP).longValue();
+            }
+        }
+        System.out.println("Lucas (p = 13) and mod table agree with exact rows up to n = 600: " + ok);
+
+        // Many exact queries: nCrOptimal O(r) each vs cached O(1)
+        Random rnd = new Random(45);
+        int queries = 2_000_000;
+        int[] ns = new int[queries], rs = new int[queries];
+        for (int q = 0; q < queries; q++) {
+            ns[q] = rnd.nextInt(61);
+            rs[q] = rnd.nextInt(ns[q] + 1);
+        }
+        long t0 = System.nanoTime();
+        long sumOld = 0;
+        for (int q = 0; q < queries; q++) sumOld += PascalTriangle3.nCrOptimal(ns[q], rs[q]);
+        long oldNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        long sumNew = 0;
+        for (int q = 0; q < queries; q++) sumNew += service.exactLong(ns[q], rs[q]);
+        long newNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        long sumMod = 0;
+        for (int q = 0; q < queries; q++) sumMod += mod.nCr(ns[q] * 16_000, rs[q] * 16_000);
+        long modNs = System.nanoTime() - t0;
+
+        System.out.println("\n" + queries + " queries, n <= 60: nCrOptimal " + oldNs / 1_000_000
+                + " ms | cached exactLong " + newNs / 1_000_000 + " ms | same sums: " + (sumOld == sumNew)
+                + " | mod table (n <= 960000) " + modNs / 1_000_000 + " ms (checksum " + sumMod + ")");
+
+        // Row generator into a reused buffer vs List<List<Integer>>
+        long[] rowBuf = new long[MAX_LONG_ROW + 1];
+        t0 = System.nanoTime();
+        long checksum = 0;
+        for (int rep = 0; rep < 20_000; rep++) {
+            for (int n = 0; n < 30; n++) {
+                service.rowInto(n, rowBuf, 0);
+                checksum += rowBuf[n / 2];
+            }
+        }
+        long rowNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        long checksumOld = 0;
+        for (int rep = 0; rep < 20_000; rep++) {
+            List<List<Integer>> t = new PascalTriangle2().generateOptimal(30);
+            for (int n = 0; n < 30; n++) checksumOld += t.get(n).get(n / 2);
+        }
+        long listNs = System.nanoTime() - t0;
+        System.out.println("20000 x 30 rows: rowInto " + rowNs / 1_000_000 + " ms | generateOptimal "
+                + listNs / 1_000_000 + " ms | same values: " + (checksum == checksumOld));
+    }
+}
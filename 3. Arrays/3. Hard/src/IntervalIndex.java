@@ -0,0 +1,351 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+public class IntervalIndex {
+
+    /* ---------------------------------------------------
+       Interval subsystem (closed intervals [start, end], long bounds)
+       ---------------------------------------------------
+       mergeOptimal sorts int[][] with (a, b) -> a[0] - b[0] (overflows for
+       far-apart starts), mutates its input and must be re-run from scratch
+       when intervals arrive. Here:
+
+       - Merged: sorted, disjoint intervals in parallel long[] starts / ends.
+         Both arrays are sorted, so point and range stabbing are binary
+         searches.
+       - IntervalSet: incremental inserts, coalesced on the fly in a TreeMap
+         keyed by start. An insert removes every stored interval it touches.
+       - mergeBatch: parallel batch merge.
+           1. LSD radix sort of (start, end) pairs on start, 8-bit digits.
+              Each pass: per-chunk histograms in parallel, offsets in
+              (digit, chunk) order, parallel stable scatter. Passes where
+              every key has the same digit are skipped.
+           2. Each chunk of the sorted pairs is merged on its own.
+           3. Chunk boundaries: the last interval carried from the previous
+              chunks swallows leading intervals of the next chunk while they
+              overlap; the rest is copied with System.arraycopy.
+       Intervals that touch (next.start <= end) are merged, as in mergeOptimal.
+    */
+    static final int PARALLEL_CHUNK = 1 << 16;
+
+    private static int chunks(int n) {
+        return Math.max(1, (n + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK);
+    }
+
+    /* ---------------------------------------------------
+       Merged: immutable sorted disjoint intervals
+       --------------------------------------------------- */
+    public static final class Merged {
+        final long[] starts, ends;
+
+        Merged(long[] starts, long[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+        }
+
+        public int size() {
+            return starts.length;
+        }
+
+        public long start(int i) {
+            return starts[i];
+        }
+
+        public long end(int i) {
+            return ends[i];
+        }
+
+        // Index of the interval containing x, or -1. O(log n)
+        public int stab(long x) {
+            int i = lastStartAtMost(x);
+            return i >= 0 && ends[i] >= x ? i : -1;
+        }
+
+        // First index whose interval ends at or after lo, or size() if none. O(log n)
+        public int firstOverlapping(long lo) {
+            int a = 0, b = ends.length; // ends are sorted too
+            while (a < b) {
+                int mid = (a + b) >>> 1;
+                if (ends[mid] < lo) a = mid + 1;
+                else b = mid;
+            }
+            return a;
+        }
+
+        // Intervals intersecting [lo, hi] are [firstOverlapping(lo), firstOverlapping(lo) + count)
+        public int countOverlapping(long lo, long hi) {
+            if (lo > hi) return 0;
+            return Math.max(0, lastStartAtMost(hi) + 1 - firstOverlapping(lo));
+        }
+
+        private int lastStartAtMost(long x) {
+            int a = 0, b = starts.length;
+            while (a < b) {
+                int mid = (a + b) >>> 1;
+                if (starts[mid] <= x) a = mid + 1;
+                else b = mid;
+            }
+            return a - 1;
+        }
+
+        public long coveredLength() {
+            long total = 0;
+            for (int i = 0; i < starts.length; i++) total += ends[i] - starts[i] + 1;
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < starts.length; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append('[').append(starts[i]).append(", ").append(ends[i]).append(']');
+            }
+            return sb.append(']').toString();
+        }
+    }
+
+    /* ---------------------------------------------------
+       IntervalSet: streaming insert with coalescing
+       ---------------------------------------------------
+       insert: O(log n + k log n), k = stored intervals absorbed
+       stab / countOverlapping: O(log n) / O(log n + answer)
+    */
+    public static final class IntervalSet {
+        private final TreeMap<Long, Long> map = new TreeMap<>(); // start -> end, disjoint
+
+        public void insert(long start, long end) {
+            if (start > end) throw new IllegalArgumentException("start " + start + " > end " + end);
+            Map.Entry<Long, Long> left = map.floorEntry(start);
+            if (left != null && left.getValue() >= start) {
+                if (left.getValue() >= end) return; // already covered
+                start = left.getKey();
+            }
+            // absorb every stored interval starting inside [start, end]
+            Map.Entry<Long, Long> next;
+            while ((next = map.ceilingEntry(start)) != null && next.getKey() <= end) {
+                end = Math.max(end, next.getValue());
+                map.remove(next.getKey());
+            }
+            map.put(start, end);
+        }
+
+        public boolean stab(long x) {
+            Map.Entry<Long, Long> e = map.floorEntry(x);
+            return e != null && e.getValue() >= x;
+        }
+
+        public int countOverlapping(long lo, long hi) {
+            if (lo > hi) return 0;
+            Long from = map.floorKey(lo);
+            if (from == null || map.get(from) < lo) from = lo;
+            return map.subMap(from, true, hi, true).size();
+        }
+
+        public int size() {
+            return map.size();
+        }
+
+        // Parallel-array copy of the current state
+        public Merged snapshot() {
+            long[] s = new long[map.size()], e = new long[map.size()];
+            int i = 0;
+            for (Map.Entry<Long, Long> entry : map.entrySet()) {
+                s[i] = entry.getKey();
+                e[i++] = entry.getValue();
+            }
+            return new Merged(s, e);
+        }
+    }
+
+    /* ---------------------------------------------------
+       Batch merge
+       ---------------------------------------------------
+       Time Complexity: O(n * passes / p), at most 8 passes
+       Space Complexity: O(n)
+    */
+    public static Merged mergeBatch(long[] starts, long[] ends) {
+        int n = starts.length;
+        if (ends.length != n) throw new IllegalArgumentException("starts and ends differ in length");
+        for (int i = 0; i < n; i++) {
+            if (starts[i] > ends[i]) throw new IllegalArgumentException("start " + starts[i] + " > end " + ends[i] + " at " + i);
+        }
+        long[] s = starts.clone(), e = ends.clone();
+        radixSortByStart(s, e);
+        return mergeSorted(s, e);
+    }
+
+    public static Merged mergeBatch(int[][] intervals) {
+        long[] s = new long[intervals.length], e = new long[intervals.length];
+        for (int i = 0; i < intervals.length; i++) {
+            s[i] = intervals[i][0];
+            e[i] = intervals[i][1];
+        }
+        return mergeBatch(s, e);
+    }
+
+    // Stable LSD radix sort of (s[i], e[i]) by s[i], signed order
+    static void radixSortByStart(long[] s, long[] e) {
+        int n = s.length;
+        int chunks = chunks(n);
+        long[] s2 = new long[n], e2 = new long[n];
+        long[] srcS = s, srcE = e, dstS = s2, dstE = e2;
+
+        for (int shift = 0; shift < 64; shift += 8) {
+            final int sh = shift;
+            final long[] fs = srcS;
+            int[][] counts = new int[chunks][];
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] h = new int[256];
+                int end = Math.min(n, (c + 1) * PARALLEL_CHUNK);
+                for (int i = c * PARALLEL_CHUNK; i < end; i++) h[digit(fs[i], sh)]++;
+                counts[c] = h;
+            });
+
+            boolean trivial = false;
+            for (int d = 0; d < 256 && !trivial; d++) {
+                long total = 0;
+                for (int c = 0; c < chunks; c++) total += counts[c][d];
+                if (total == n) trivial = true; // all keys share this digit
+            }
+            if (trivial) continue;
+
+            int next = 0;
+            for (int d = 0; d < 256; d++) {
+                for (int c = 0; c < chunks; c++) {
+                    int cnt = counts[c][d];
+                    counts[c][d] = next;
+                    next += cnt;
+                }
+            }
+            final long[] fe = srcE, ts = dstS, te = dstE;
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] pos = counts[c];
+                int end = Math.min(n, (c + 1) * PARALLEL_CHUNK);
+                for (int i = c * PARALLEL_CHUNK; i < end; i++) {
+                    int p = pos[digit(fs[i], sh)]++;
+                    ts[p] = fs[i];
+                    te[p] = fe[i];
+                }
+            });
+            long[] t = srcS; srcS = dstS; dstS = t;
+            t = srcE; srcE = dstE; dstE = t;
+        }
+        if (srcS != s) {
+            System.arraycopy(srcS, 0, s, 0, n);
+            System.arraycopy(srcE, 0, e, 0, n);
+        }
+    }
+
+    // Flipping the sign bit makes unsigned digit order match signed order
+    private static int digit(long key, int shift) {
+        return (int) (((key ^ Long.MIN_VALUE) >>> shift) & 0xFF);
+    }
+
+    // Merge pairs already sorted by start: chunks in parallel, then boundaries
+    static Merged mergeSorted(long[] s, long[] e) {
+        int n = s.length;
+        int chunks = chunks(n);
+        long[][] partS = new long[chunks][], partE = new long[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * PARALLEL_CHUNK, to = Math.min(n, from + PARALLEL_CHUNK);
+            long[] ms = new long[to - from], me = new long[to - from];
+            int k = -1;
+            for (int i = from; i < to; i++) {
+                if (k >= 0 && s[i] <= me[k]) {
+                    me[k] = Math.max(me[k], e[i]);
+                } else {
+                    ms[++k] = s[i];
+                    me[k] = e[i];
+                }
+            }
+            partS[c] = Arrays.copyOf(ms, k + 1);
+            partE[c] = Arrays.copyOf(me, k + 1);
+        });
+
+        long[] outS = new long[n], outE = new long[n];
+        int k = 0;
+        for (int c = 0; c < chunks; c++) {
+            long[] ps = partS[c], pe = partE[c];
+            int i = 0;
+            while (k > 0 && i < ps.length && ps[i] <= outE[k - 1]) { // crosses the boundary
+                outE[k - 1] = Math.max(outE[k - 1], pe[i]);
+                i++;
+            }
+            System.arraycopy(ps, i, outS, k, ps.length - i);
+            System.arraycopy(pe, i, outE, k, ps.length - i);
+            k += ps.length - i;
+        }
+        return new Merged(Arrays.copyOf(outS, k), Arrays.copyOf(outE, k));
+    }
+
+    public static void main(String[] args) {
+        int[][] intervals = {{1, 3}, {2, 6}, {8, 10}, {15, 18}};
+        Merged merged = mergeBatch(intervals);
+        System.out.println("mergeBatch: " + merged);
+        System.out.println("mergeOptimal: " + Arrays.deepToString(new MergeOverlappingIntervals().mergeOptimal(
+                new int[][]{{1, 3}, {2, 6}, {8, 10}, {15, 18}})));
+        System.out.println("stab(7) = " + merged.stab(7) + ", stab(9) = " + merged.stab(9)
+                + ", intervals overlapping [5, 16]: " + merged.countOverlapping(5, 16));
+
+        // Comparator a[0] - b[0] overflows here and leaves the list unsorted
+        int[][] far = {{2_000_000_000, 2_000_000_001}, {-2_000_000_000, -1_999_999_999}, {0, 5}};
+        System.out.println("Far-apart starts, mergeBatch: " + mergeBatch(far));
+
+        IntervalSet live = new IntervalSet();
+        live.insert(1, 3);
+        live.insert(8, 10);
+        live.insert(15, 18);
+        live.insert(2, 6);
+        System.out.println("IntervalSet after streaming inserts: " + live.snapshot()
+                + ", stab(4) = " + live.stab(4) + ", overlapping [5, 16]: " + live.countOverlapping(5, 16));
+        live.insert(4, 15);
+        System.out.println("after insert [4, 15]: " + live.snapshot());
+
+        // Large batch: mergeOptimal vs radix + parallel merge vs streaming inserts
+        int n = 2_000_000;
+        Random rnd = new Random(46);
+        long[] s = new long[n], e = new long[n];
+        int[][] boxed = new int[n][];
+        for (int i = 0; i < n; i++) {
+            int start = rnd.nextInt(400_000_000);
+            int len = rnd.nextInt(150);
+            s[i] = start;
+            e[i] = start + len;
+            boxed[i] = new int[]{start, start + len};
+        }
+
+        long t0 = System.nanoTime();
+        int[][] old = new MergeOverlappingIntervals().mergeOptimal(boxed);
+        long oldNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        Merged batch = mergeBatch(s, e);
+        long batchNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        IntervalSet set = new IntervalSet();
+        for (int i = 0; i < n; i++) set.insert(s[i], e[i]);
+        long setNs = System.nanoTime() - t0;
+        Merged streamed = set.snapshot();
+
+        boolean ok = old.length == batch.size()
+                && Arrays.equals(batch.starts, streamed.starts) && Arrays.equals(batch.ends, streamed.ends);
+        for (int i = 0; i < old.length && ok; i++) ok = old[i][0] == batch.start(i) && old[i][1] == batch.end(i);
+
+        int queries = 1_000_000, hits = 0;
+        t0 = System.nanoTime();
+        for (int q = 0; q < queries; q++) if (batch.stab(rnd.nextInt(400_000_000)) >= 0) hits++;
+        long stabNs = System.nanoTime() - t0;
+
+        System.out.println("\nn = " + n + " -> " + batch.size() + " merged intervals");
+        System.out.println("mergeOptimal (int[][])       : " + oldNs / 1_000_000 + " ms");
+        System.out.println("mergeBatch (radix + parallel): " + batchNs / 1_000_000 + " ms");
+        System.out.println("IntervalSet streaming inserts: " + setNs / 1_000_000 + " ms");
+        System.out.println("All three agree: " + ok);
+        System.out.println(queries + " point stabs: " + stabNs / 1_000_000 + " ms (" + hits + " hits)");
+    }
+}
@@ -0,0 +1,307 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class InversionEngine {
+
+    // ---------------------------------------------------
+    // PAIR COUNTING ENGINE: pairs i < j with a[i] > c * a[j]
+    // ---------------------------------------------------
+    // c = 1 -> inversions (CountInversions)
+    // c = 2 -> reverse pairs (ReversePairs)
+    //
+    // Differences from countInversionOptimal / reversePairsOptimal:
+    // - Counts are long. n * (n - 1) / 2 passes Integer.MAX_VALUE at
+    //   n ~ 65k for a descending array, where the int versions wrap.
+    // - One scratch buffer for the whole sort. Subranges are disjoint, so
+    //   every merge (including the parallel ones) writes only its own
+    //   part of it. No temp array / ArrayList per merge.
+    // - ForkJoin: halves above PARALLEL_THRESHOLD are counted in parallel.
+    // - Leaves of <= LEAF elements: pairs counted directly, then insertion
+    //   sort, instead of recursing down to single elements.
+    // - Merge and cross count pick the pointer to advance without a branch
+    //   (random data makes that branch a coin flip). For c = 1 the count is
+    //   taken inside the merge itself, so there is no second pass.
+    //
+    // Cross count of two sorted halves L, R for any int c:
+    // - c >= 0: c * x is non-decreasing, so {r : c * r < l} is a prefix of
+    //   R that grows with l -> pointer moving up.
+    // - c < 0 : c * x is decreasing, so the set is a suffix of R that grows
+    //   with l -> pointer moving down.
+    // Products are long: |c * x| <= 2^62, no overflow.
+    //
+    // StreamingCounter: Fenwick tree over coordinate-compressed values for
+    // elements that arrive one at a time. Each insert returns the number of
+    // new pairs it closes, in O(log n).
+
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+    static final int LEAF = 16;
+
+    // ---------------------------------------------------
+    // Public API
+    // ---------------------------------------------------
+    // Time Complexity: O(n log n / p)
+    // Space Complexity: O(n) - one copy of the input, one scratch buffer
+    public static long inversions(int[] arr) {
+        return countPairs(arr, 1);
+    }
+
+    public static long reversePairs(int[] arr) {
+        return countPairs(arr, 2);
+    }
+
+    public static long countPairs(int[] arr, int c) {
+        return countPairsInPlace(arr.clone(), c);
+    }
+
+    // Same count, but sorts arr instead of copying it
+    public static long countPairsInPlace(int[] arr, int c) {
+        if (arr.length < 2) return 0;
+        int[] scratch = new int[arr.length];
+        return ForkJoinPool.commonPool().invoke(new CountTask(arr, scratch, c, 0, arr.length - 1));
+    }
+
+    // ---------------------------------------------------
+    // ForkJoin merge sort
+    // ---------------------------------------------------
+    private static final class CountTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        final int[] arr, scratch;
+        final int c, low, high;
+
+        CountTask(int[] arr, int[] scratch, int c, int low, int high) {
+            this.arr = arr;
+            this.scratch = scratch;
+            this.c = c;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected Long compute() {
+            if (high - low < PARALLEL_THRESHOLD) return sortAndCount(arr, scratch, c, low, high);
+            int mid = (low + high) >>> 1;
+            CountTask left = new CountTask(arr, scratch, c, low, mid);
+            left.fork();
+            long count = new CountTask(arr, scratch, c, mid + 1, high).compute();
+            count += left.join();
+            return count + mergeAndCount(arr, scratch, c, low, mid, high);
+        }
+    }
+
+    private static long sortAndCount(int[] arr, int[] scratch, int c, int low, int high) {
+        if (high - low < LEAF) return leafCount(arr, c, low, high);
+        int mid = (low + high) >>> 1;
+        long count = sortAndCount(arr, scratch, c, low, mid);
+        count += sortAndCount(arr, scratch, c, mid + 1, high);
+        return count + mergeAndCount(arr, scratch, c, low, mid, high);
+    }
+
+    private static long mergeAndCount(int[] arr, int[] scratch, int c, int low, int mid, int high) {
+        if (c == 1) return merge(arr, scratch, low, mid, high); // inversions fall out of the merge
+        long count = crossCount(arr, c, low, mid, high);
+        merge(arr, scratch, low, mid, high);
+        return count;
+    }
+
+    // Direct count on a small unsorted range, then insertion sort
+    private static long leafCount(int[] arr, int c, int low, int high) {
+        long count = 0;
+        for (int i = low; i < high; i++) {
+            long x = arr[i];
+            for (int j = i + 1; j <= high; j++) {
+                if (x > (long) c * arr[j]) count++;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            int v = arr[i], j = i - 1;
+            while (j >= low && arr[j] > v) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = v;
+        }
+        return count;
+    }
+
+    // Pairs (l in [low, mid], r in [mid + 1, high]) with l > c * r, both halves sorted.
+    // Each step advances exactly one pointer, chosen without a branch:
+    // random data makes "l > c * r" unpredictable.
+    private static long crossCount(int[] arr, int c, int low, int mid, int high) {
+        long count = 0;
+        int left = low;
+        if (c >= 0) {
+            int right = mid + 1;
+            while (left <= mid && right <= high) {
+                int hit = arr[left] > (long) c * arr[right] ? 1 : 0;
+                right += hit;                                // r is below l: include it
+                count += (1 - hit) * (right - (mid + 1));    // l is done: count the prefix
+                left += 1 - hit;
+            }
+            count += (long) (mid + 1 - left) * (right - (mid + 1));
+        } else {
+            int right = high + 1;
+            while (left <= mid && right > mid + 1) {
+                int hit = arr[left] > (long) c * arr[right - 1] ? 1 : 0;
+                right -= hit;
+                count += (1 - hit) * (high + 1 - right);
+                left += 1 - hit;
+            }
+            count += (long) (mid + 1 - left) * (high + 1 - right);
+        }
+        return count;
+    }
+
+    // Merge arr[low..mid] and arr[mid+1..high] through scratch[low..high].
+    // Returns the inversions between the halves (left taken after a right).
+    private static long merge(int[] arr, int[] scratch, int low, int mid, int high) {
+        if (arr[mid] <= arr[mid + 1]) return 0; // already in order
+        long inversions = 0;
+        int left = low, right = mid + 1, k = low;
+        while (left <= mid && right <= high) {
+            int l = arr[left], r = arr[right];
+            int takeLeft = l <= r ? 1 : 0;
+            scratch[k++] = takeLeft != 0 ? l : r;
+            inversions += (1 - takeLeft) * (mid - left + 1);
+            left += takeLeft;
+            right += 1 - takeLeft;
+        }
+        while (left <= mid) scratch[k++] = arr[left++];
+        // remaining right elements are already in place
+        System.arraycopy(scratch, low, arr, low, k - low);
+        return inversions;
+    }
+
+    // ---------------------------------------------------
+    // STREAMING COUNTER (Fenwick tree, coordinate compression)
+    // ---------------------------------------------------
+    // Values must come from a universe known up front. insert(x) counts
+    // earlier elements e with e > c * x.
+    // Build: O(u log u), insert: O(log u), Space: O(u)
+    public static final class StreamingCounter {
+        private final int[] values; // sorted distinct universe
+        private final long[] tree;  // Fenwick over value ranks 1..u
+        private final int c;
+        private long inserted, pairs;
+
+        public StreamingCounter(int[] universe, int c) {
+            this.values = Arrays.stream(universe).sorted().distinct().toArray();
+            this.tree = new long[values.length + 1];
+            this.c = c;
+        }
+
+        // Returns the number of new pairs closed by x
+        public long insert(int x) {
+            int rank = Arrays.binarySearch(values, x);
+            if (rank < 0) throw new IllegalArgumentException("Value not in universe: " + x);
+
+            // earlier elements <= c * x are not pairs
+            long bound = (long) c * x;
+            int notGreater = upperBound(values, bound);
+            long added = inserted - prefix(notGreater);
+
+            for (int i = rank + 1; i < tree.length; i += i & -i) tree[i]++;
+            inserted++;
+            pairs += added;
+            return added;
+        }
+
+        public long pairs() {
+            return pairs;
+        }
+
+        public long inserted() {
+            return inserted;
+        }
+
+        private long prefix(int i) {
+            long s = 0;
+            for (; i > 0; i -= i & -i) s += tree[i];
+            return s;
+        }
+
+        // Number of values <= bound
+        private static int upperBound(int[] values, long bound) {
+            int lo = 0, hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] <= bound) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    // Offline use of the streaming counter (same result as countPairs)
+    public static long countPairsFenwick(int[] arr, int c) {
+        StreamingCounter counter = new StreamingCounter(arr, c);
+        for (int x : arr) counter.insert(x);
+        return counter.pairs();
+    }
+
+    // ---------------------------------------------------
+    // MAIN METHOD FOR TESTING
+    // ---------------------------------------------------
+    public static void main(String[] args) {
+        int[] arr1 = {8, 4, 2, 1};
+        int[] nums2 = {1, 3, 2, 3, 1};
+        System.out.println("Inversions {8, 4, 2, 1}: " + inversions(arr1)
+                + " (countInversionOptimal: " + CountInversions.countInversionOptimal(arr1.clone()) + ")");
+        System.out.println("Reverse pairs {1, 3, 2, 3, 1}: " + reversePairs(nums2)
+                + " (reversePairsOptimal: " + ReversePairs.reversePairsOptimal(nums2.clone()) + ")");
+        System.out.println("Pairs a[i] > -1 * a[j] in {1, -3, 2, -1}: " + countPairs(new int[]{1, -3, 2, -1}, -1));
+
+        // Random checks against brute force, several multipliers
+        Random rnd = new Random(43);
+        boolean ok = true;
+        for (int t = 0; t < 300; t++) {
+            int n = rnd.nextInt(200);
+            int[] a = new int[n];
+            for (int i = 0; i < n; i++) a[i] = rnd.nextInt(41) - 20;
+            int c = rnd.nextInt(7) - 3;
+            long brute = 0;
+            for (int i = 0; i < n; i++) for (int j = i + 1; j < n; j++) if (a[i] > (long) c * a[j]) brute++;
+            ok &= countPairs(a, c) == brute && countPairsFenwick(a, c) == brute;
+        }
+        System.out.println("300 random arrays, c in [-3, 3], merge and Fenwick agree with brute force: " + ok);
+
+        // Overflow: descending array of 100k elements
+        int n = 100_000;
+        int[] desc = new int[n];
+        for (int i = 0; i < n; i++) desc[i] = n - i;
+        System.out.println("\nDescending n = " + n + ": expected " + (long) n * (n - 1) / 2
+                + ", InversionEngine " + inversions(desc)
+                + ", countInversionOptimal (int) " + CountInversions.countInversionOptimal(desc.clone()));
+
+        // Timing on a large random array
+        int big = 5_000_000;
+        int[] data = new int[big];
+        for (int i = 0; i < big; i++) data[i] = rnd.nextInt();
+
+        long t0 = System.nanoTime();
+        int oldInv = CountInversions.countInversionOptimal(data.clone());
+        long oldInvNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        long newInv = inversions(data);
+        long newInvNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        long fenwickInv = countPairsFenwick(data, 1);
+        long fenwickNs = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        int oldRev = ReversePairs.reversePairsOptimal(data.clone());
+        long oldRevNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        long newRev = reversePairs(data);
+        long newRevNs = System.nanoTime() - t0;
+
+        System.out.println("\nn = " + big + " random ints");
+        System.out.println("countInversionOptimal : " + oldInv + " in " + oldInvNs / 1_000_000 + " ms");
+        System.out.println("InversionEngine       : " + newInv + " in " + newInvNs / 1_000_000 + " ms");
+        System.out.println("StreamingCounter      : " + fenwickInv + " in " + fenwickNs / 1_000_000 + " ms");
+        System.out.println("reversePairsOptimal   : " + oldRev + " in " + oldRevNs / 1_000_000 + " ms");
+        System.out.println("InversionEngine (c=2) : " + newRev + " in " + newRevNs / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,234 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+public class KSumEngine {
+
+    /**
+     * K-SUM ENGINE (k = 2..6)
+     * -----------------------
+     * Unique k-tuples (by value) of a sorted int array that sum to a target,
+     * in lexicographic order - the same tuples and order as threeSumOptimal /
+     * fourSumOptimal, without boxing.
+     *
+     * - Recursion: fix the smallest element, solve (k - 1)-sum on the rest;
+     *   k = 2 is the two-pointer scan. Duplicates are skipped at every level.
+     * - Pruning with the sorted bounds: from index i the smallest possible
+     *   sum is k * a[i] and the largest is a[i] + (k - 1) * a[n - 1]. If the
+     *   first is already above the target no later i can work (break); if the
+     *   second is below it, this i cannot work (continue).
+     * - Output: a flat int[] (k values per tuple), an IntConsumer receiving
+     *   the same flat stream, or only the count.
+     * - Parallel: for k >= 3 the outermost distinct values are split across
+     *   ForkJoin workers. Each writes its own buffer; buffers are joined in
+     *   index order, so the result is identical to the serial one.
+     *
+     * Sums are long: 6 ints cannot overflow it.
+     */
+    static final int MIN_K = 2, MAX_K = 6;
+
+    private final int[] a; // sorted copy
+
+    public KSumEngine(int[] nums) {
+        a = nums.clone();
+        Arrays.sort(a);
+    }
+
+    // Growable int buffer, the only allocation on the result path
+    private static final class IntList {
+        int[] data = new int[16];
+        int size;
+
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+    }
+
+    /** Receives each tuple: prefix[0..depth) followed by (x, y). */
+    private interface Sink {
+        void tuple(int[] prefix, int depth, int x, int y);
+    }
+
+    private static void checkK(int k) {
+        if (k < MIN_K || k > MAX_K) throw new IllegalArgumentException("k must be in [" + MIN_K + ", " + MAX_K + "], got " + k);
+    }
+
+    /**
+     * Tuples of k values from a[from..n) summing to target, given the first
+     * `depth` values already fixed in prefix.
+     * Time Complexity: O(n^(k-1)) worst case
+     * Space Complexity: O(k) recursion
+     */
+    private void search(int from, int k, long target, int[] prefix, int depth, Sink sink) {
+        int n = a.length;
+        if (n - from < k) return;
+        if ((long) k * a[from] > target || (long) k * a[n - 1] < target) return; // outside [min, max]
+
+        if (k == 2) {
+            int lo = from, hi = n - 1;
+            while (lo < hi) {
+                long sum = (long) a[lo] + a[hi];
+                if (sum < target) {
+                    lo++;
+                } else if (sum > target) {
+                    hi--;
+                } else {
+                    sink.tuple(prefix, depth, a[lo], a[hi]);
+                    lo++;
+                    hi--;
+                    while (lo < hi && a[lo] == a[lo - 1]) lo++;
+                    while (lo < hi && a[hi] == a[hi + 1]) hi--;
+                }
+            }
+            return;
+        }
+
+        for (int i = from; i <= n - k; i++) {
+            if (i > from && a[i] == a[i - 1]) continue;
+            if ((long) k * a[i] > target) break;                           // min from here on is too big
+            if (a[i] + (long) (k - 1) * a[n - 1] < target) continue;       // max with a[i] is too small
+            prefix[depth] = a[i];
+            search(i + 1, k - 1, target - a[i], prefix, depth + 1, sink);
+        }
+    }
+
+    // Outermost indices that start a distinct value (the parallel split points)
+    private int[] distinctStarts(int k) {
+        IntList starts = new IntList();
+        for (int i = 0; i <= a.length - k; i++) {
+            if (i == 0 || a[i] != a[i - 1]) starts.add(i);
+        }
+        return Arrays.copyOf(starts.data, starts.size);
+    }
+
+    // Search with a[first] fixed as the smallest element
+    private void searchFrom(int first, int k, long target, Sink sink) {
+        int[] prefix = new int[k];
+        prefix[0] = a[first];
+        search(first + 1, k - 1, target - a[first], prefix, 1, sink);
+    }
+
+    private static Sink listSink(IntList out) {
+        return (prefix, depth, x, y) -> {
+            for (int d = 0; d < depth; d++) out.add(prefix[d]);
+            out.add(x);
+            out.add(y);
+        };
+    }
+
+    /** Flat tuples: result[t * k .. t * k + k) is the t-th tuple. */
+    public int[] tuples(int k, long target) {
+        checkK(k);
+        if (k == 2) {
+            IntList out = new IntList();
+            search(0, 2, target, new int[k], 0, listSink(out));
+            return Arrays.copyOf(out.data, out.size);
+        }
+        int[] starts = distinctStarts(k);
+        int[][] parts = new int[starts.length][];
+        IntStream.range(0, starts.length).parallel().forEach(s -> {
+            IntList out = new IntList();
+            searchFrom(starts[s], k, target, listSink(out));
+            parts[s] = Arrays.copyOf(out.data, out.size);
+        });
+
+        int total = 0;
+        for (int[] p : parts) total += p.length;
+        int[] result = new int[total];
+        int pos = 0;
+        for (int[] p : parts) {
+            System.arraycopy(p, 0, result, pos, p.length);
+            pos += p.length;
+        }
+        return result;
+    }
+
+    /** Serial streaming: k values per tuple, tuples in lexicographic order. */
+    public void forEach(int k, long target, IntConsumer sink) {
+        checkK(k);
+        search(0, k, target, new int[k], 0, (prefix, depth, x, y) -> {
+            for (int d = 0; d < depth; d++) sink.accept(prefix[d]);
+            sink.accept(x);
+            sink.accept(y);
+        });
+    }
+
+    /** Number of unique tuples, nothing is materialized. */
+    public long count(int k, long target) {
+        checkK(k);
+        long[] single = new long[1];
+        if (k == 2) {
+            search(0, 2, target, new int[k], 0, (prefix, depth, x, y) -> single[0]++);
+            return single[0];
+        }
+        int[] starts = distinctStarts(k);
+        return IntStream.range(0, starts.length).parallel().mapToLong(s -> {
+            long[] c = new long[1];
+            searchFrom(starts[s], k, target, (prefix, depth, x, y) -> c[0]++);
+            return c[0];
+        }).sum();
+    }
+
+    private static List<List<Integer>> toLists(int[] flat, int k) {
+        List<List<Integer>> out = new ArrayList<>();
+        for (int t = 0; t < flat.length; t += k) {
+            List<Integer> tuple = new ArrayList<>(k);
+            for (int d = 0; d < k; d++) tuple.add(flat[t + d]);
+            out.add(tuple);
+        }
+        return out;
+    }
+
+    // Main method for demonstration
+    public static void main(String[] args) {
+        int[] nums3 = {-1, 0, 1, 2, -1, -4};
+        int[] nums4 = {1, 0, -1, 0, -2, 2};
+        KSumEngine e3 = new KSumEngine(nums3), e4 = new KSumEngine(nums4);
+        System.out.println("3-sum " + Arrays.toString(nums3) + ": " + toLists(e3.tuples(3, 0), 3));
+        System.out.println("4-sum " + Arrays.toString(nums4) + ": " + toLists(e4.tuples(4, 0), 4));
+        System.out.print("5-sum of {1..10} = 20 via IntConsumer:");
+        new KSumEngine(IntStream.rangeClosed(1, 10).toArray()).forEach(5, 20, v -> System.out.print(" " + v));
+        System.out.println();
+
+        Random rnd = new Random(44);
+        int n3 = 3_000, n4 = 400;
+        int[] data3 = new int[n3], data4 = new int[n4];
+        for (int i = 0; i < n3; i++) data3[i] = rnd.nextInt(20_001) - 10_000;
+        for (int i = 0; i < n4; i++) data4[i] = rnd.nextInt(2_001) - 1_000;
+
+        long t0 = System.nanoTime();
+        List<List<Integer>> old3 = new ThreeSumProblem().threeSumOptimal(data3.clone());
+        long old3Ns = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        KSumEngine big3 = new KSumEngine(data3);
+        int[] flat3 = big3.tuples(3, 0);
+        long new3Ns = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        long count3 = big3.count(3, 0);
+        long count3Ns = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        List<List<Integer>> old4 = FourSumProblem.fourSumOptimal(data4.clone(), 100);
+        long old4Ns = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        KSumEngine big4 = new KSumEngine(data4);
+        int[] flat4 = big4.tuples(4, 100);
+        long new4Ns = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        long count4 = big4.count(4, 100);
+        long count4Ns = System.nanoTime() - t0;
+
+        System.out.println("\n3-sum, n = " + n3 + ": threeSumOptimal " + old3.size() + " in " + old3Ns / 1_000_000
+                + " ms | tuples " + flat3.length / 3 + " in " + new3Ns / 1_000_000
+                + " ms | count " + count3 + " in " + count3Ns / 1_000_000
+                + " ms | same tuples, same order: " + old3.equals(toLists(flat3, 3)));
+        System.out.println("4-sum, n = " + n4 + ": fourSumOptimal " + old4.size() + " in " + old4Ns / 1_000_000
+                + " ms | tuples " + flat4.length / 4 + " in " + new4Ns / 1_000_000
+                + " ms | count " + count4 + " in " + count4Ns / 1_000_000
+                + " ms | same tuples, same order: " + old4.equals(toLists(flat4, 4)));
+    }
+}
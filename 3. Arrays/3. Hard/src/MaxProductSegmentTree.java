@@ -0,0 +1,388 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class MaxProductSegmentTree {
+
+    /**
+     * SEGMENT TREE FOR MAXIMUM PRODUCT SUBARRAY
+     * ------------------------------------------
+     * Same treatment as the Kadane segment tree, with a node that can be
+     * merged for products. A negative factor turns the smallest product
+     * into the largest, so every segment keeps both extremes:
+     *
+     *   prod           : product of the whole segment
+     *   maxPre, minPre : largest / smallest product of a prefix  (ends at maxPreEnd / minPreEnd)
+     *   maxSuf, minSuf : largest / smallest product of a suffix  (starts at maxSufStart / minSufStart)
+     *   best           : largest product of any subarray [bestL, bestR]
+     *
+     * Merge of L (left) and R (right):
+     *   maxPre = max(L.maxPre, L.prod * R.maxPre, L.prod * R.minPre)
+     *   maxSuf = max(R.maxSuf, R.prod * L.maxSuf, R.prod * L.minSuf)
+     *   best   = max(L.best, R.best, L.maxSuf * R.maxPre, L.minSuf * R.minPre)
+     * (min versions are symmetric).
+     *
+     * Precision: products grow exponentially, so values are doubles.
+     * - Exact while every |product| involved is at most 2^53.
+     * - Beyond that a value is the nearest double (relative error 2^-53), so
+     *   two candidates closer than that may be ranked wrongly.
+     * - Past ~1.8e308 a value saturates to +-Infinity; mul() keeps 0 * Inf
+     *   at 0, so a zero still resets the product.
+     * The best subarray's bounds are exact positions either way, and
+     * exactProduct(bestL, bestR) recomputes its product with BigInteger.
+     * - Build: O(n / p) with ForkJoin
+     * - Range query / point update: O(log n)
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private final int n;
+    private final int[] values; // current array, for exactProduct
+    private final double[] prod, maxPre, minPre, maxSuf, minSuf, best;
+    private final int[] maxPreEnd, minPreEnd, maxSufStart, minSufStart, bestL, bestR;
+
+    /** Query result with the same fields as a node. */
+    static final class Node {
+        double prod, maxPre, minPre, maxSuf, minSuf, best;
+        int maxPreEnd, minPreEnd, maxSufStart, minSufStart, bestL, bestR;
+
+        @Override
+        public String toString() {
+            return "best=" + best + " at [" + bestL + ", " + bestR + "]";
+        }
+    }
+
+    public MaxProductSegmentTree(int[] arr) {
+        if (arr.length == 0) throw new IllegalArgumentException("Array must not be empty");
+        n = arr.length;
+        values = arr.clone();
+        int size = 4 * n;
+        prod = new double[size];
+        maxPre = new double[size];
+        minPre = new double[size];
+        maxSuf = new double[size];
+        minSuf = new double[size];
+        best = new double[size];
+        maxPreEnd = new int[size];
+        minPreEnd = new int[size];
+        maxSufStart = new int[size];
+        minSufStart = new int[size];
+        bestL = new int[size];
+        bestR = new int[size];
+        ForkJoinPool.commonPool().invoke(new Build(arr, 1, 0, n - 1));
+    }
+
+    private final class Build extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int[] arr;
+        final int node, l, r;
+
+        Build(int[] arr, int node, int l, int r) {
+            this.arr = arr;
+            this.node = node;
+            this.l = l;
+            this.r = r;
+        }
+
+        @Override
+        protected void compute() {
+            if (r - l < PARALLEL_THRESHOLD) {
+                buildSerial(arr, node, l, r);
+                return;
+            }
+            int mid = (l + r) >>> 1;
+            invokeAll(new Build(arr, 2 * node, l, mid), new Build(arr, 2 * node + 1, mid + 1, r));
+            pull(node);
+        }
+    }
+
+    private void buildSerial(int[] arr, int node, int l, int r) {
+        if (l == r) {
+            setLeaf(node, l, arr[l]);
+            return;
+        }
+        int mid = (l + r) >>> 1;
+        buildSerial(arr, 2 * node, l, mid);
+        buildSerial(arr, 2 * node + 1, mid + 1, r);
+        pull(node);
+    }
+
+    private void setLeaf(int node, int i, int value) {
+        prod[node] = maxPre[node] = minPre[node] = maxSuf[node] = minSuf[node] = best[node] = value;
+        maxPreEnd[node] = minPreEnd[node] = maxSufStart[node] = minSufStart[node] = bestL[node] = bestR[node] = i;
+    }
+
+    // a * b, with 0 * Infinity = 0 instead of NaN
+    private static double mul(double a, double b) {
+        return a == 0 || b == 0 ? 0 : a * b;
+    }
+
+    // Recompute node from its two children straight from the arrays; same
+    // rules and tie-breaks as merge(), which is kept for query results
+    private void pull(int node) {
+        int a = 2 * node, b = 2 * node + 1;
+        prod[node] = mul(prod[a], prod[b]);
+
+        // prefixes: all of a's, or the whole of a followed by a prefix of b
+        double viaMax = mul(prod[a], maxPre[b]), viaMin = mul(prod[a], minPre[b]);
+        double v = maxPre[a];
+        int end = maxPreEnd[a];
+        if (viaMax > v) {
+            v = viaMax;
+            end = maxPreEnd[b];
+        }
+        if (viaMin > v) {
+            v = viaMin;
+            end = minPreEnd[b];
+        }
+        maxPre[node] = v;
+        maxPreEnd[node] = end;
+        v = minPre[a];
+        end = minPreEnd[a];
+        if (viaMax < v) {
+            v = viaMax;
+            end = maxPreEnd[b];
+        }
+        if (viaMin < v) {
+            v = viaMin;
+            end = minPreEnd[b];
+        }
+        minPre[node] = v;
+        minPreEnd[node] = end;
+
+        // suffixes: all of b's, or a suffix of a followed by the whole of b
+        viaMax = mul(prod[b], maxSuf[a]);
+        viaMin = mul(prod[b], minSuf[a]);
+        v = maxSuf[b];
+        int start = maxSufStart[b];
+        if (viaMax > v) {
+            v = viaMax;
+            start = maxSufStart[a];
+        }
+        if (viaMin > v) {
+            v = viaMin;
+            start = minSufStart[a];
+        }
+        maxSuf[node] = v;
+        maxSufStart[node] = start;
+        v = minSuf[b];
+        start = minSufStart[b];
+        if (viaMax < v) {
+            v = viaMax;
+            start = maxSufStart[a];
+        }
+        if (viaMin < v) {
+            v = viaMin;
+            start = minSufStart[a];
+        }
+        minSuf[node] = v;
+        minSufStart[node] = start;
+
+        // best: inside a, inside b, or a suffix of a joined to a prefix of b
+        v = best[a];
+        int l = bestL[a], r = bestR[a];
+        if (best[b] > v) {
+            v = best[b];
+            l = bestL[b];
+            r = bestR[b];
+        }
+        double cross = mul(maxSuf[a], maxPre[b]);
+        if (cross > v) {
+            v = cross;
+            l = maxSufStart[a];
+            r = maxPreEnd[b];
+        }
+        cross = mul(minSuf[a], minPre[b]);
+        if (cross > v) {
+            v = cross;
+            l = minSufStart[a];
+            r = minPreEnd[b];
+        }
+        best[node] = v;
+        bestL[node] = l;
+        bestR[node] = r;
+    }
+
+    private Node toNode(int node) {
+        Node x = new Node();
+        x.prod = prod[node];
+        x.maxPre = maxPre[node];
+        x.minPre = minPre[node];
+        x.maxSuf = maxSuf[node];
+        x.minSuf = minSuf[node];
+        x.best = best[node];
+        x.maxPreEnd = maxPreEnd[node];
+        x.minPreEnd = minPreEnd[node];
+        x.maxSufStart = maxSufStart[node];
+        x.minSufStart = minSufStart[node];
+        x.bestL = bestL[node];
+        x.bestR = bestR[node];
+        return x;
+    }
+
+    static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        Node x = new Node();
+        x.prod = mul(a.prod, b.prod);
+
+        // prefixes: all of a's, or the whole of a followed by a prefix of b
+        double viaMax = mul(a.prod, b.maxPre), viaMin = mul(a.prod, b.minPre);
+        x.maxPre = a.maxPre;
+        x.maxPreEnd = a.maxPreEnd;
+        if (viaMax > x.maxPre) {
+            x.maxPre = viaMax;
+            x.maxPreEnd = b.maxPreEnd;
+        }
+        if (viaMin > x.maxPre) {
+            x.maxPre = viaMin;
+            x.maxPreEnd = b.minPreEnd;
+        }
+        x.minPre = a.minPre;
+        x.minPreEnd = a.minPreEnd;
+        if (viaMax < x.minPre) {
+            x.minPre = viaMax;
+            x.minPreEnd = b.maxPreEnd;
+        }
+        if (viaMin < x.minPre) {
+            x.minPre = viaMin;
+            x.minPreEnd = b.minPreEnd;
+        }
+
+        // suffixes: all of b's, or a suffix of a followed by the whole of b
+        viaMax = mul(b.prod, a.maxSuf);
+        viaMin = mul(b.prod, a.minSuf);
+        x.maxSuf = b.maxSuf;
+        x.maxSufStart = b.maxSufStart;
+        if (viaMax > x.maxSuf) {
+            x.maxSuf = viaMax;
+            x.maxSufStart = a.maxSufStart;
+        }
+        if (viaMin > x.maxSuf) {
+            x.maxSuf = viaMin;
+            x.maxSufStart = a.minSufStart;
+        }
+        x.minSuf = b.minSuf;
+        x.minSufStart = b.minSufStart;
+        if (viaMax < x.minSuf) {
+            x.minSuf = viaMax;
+            x.minSufStart = a.maxSufStart;
+        }
+        if (viaMin < x.minSuf) {
+            x.minSuf = viaMin;
+            x.minSufStart = a.minSufStart;
+        }
+
+        // best: inside a, inside b, or a suffix of a joined to a prefix of b
+        x.best = a.best;
+        x.bestL = a.bestL;
+        x.bestR = a.bestR;
+        if (b.best > x.best) {
+            x.best = b.best;
+            x.bestL = b.bestL;
+            x.bestR = b.bestR;
+        }
+        double cross = mul(a.maxSuf, b.maxPre);
+        if (cross > x.best) {
+            x.best = cross;
+            x.bestL = a.maxSufStart;
+            x.bestR = b.maxPreEnd;
+        }
+        cross = mul(a.minSuf, b.minPre);
+        if (cross > x.best) {
+            x.best = cross;
+            x.bestL = a.minSufStart;
+            x.bestR = b.minPreEnd;
+        }
+        return x;
+    }
+
+    /** Best subarray of the whole array, O(1). */
+    public Node whole() {
+        return toNode(1);
+    }
+
+    /** Best subarray inside [ql, qr], O(log n). */
+    public Node query(int ql, int qr) {
+        if (ql < 0 || qr >= n || ql > qr) {
+            throw new IndexOutOfBoundsException("Range [" + ql + ", " + qr + "] out of bounds for length " + n);
+        }
+        return query(1, 0, n - 1, ql, qr);
+    }
+
+    private Node query(int node, int l, int r, int ql, int qr) {
+        if (qr < l || r < ql) return null;
+        if (ql <= l && r <= qr) return toNode(node);
+        int mid = (l + r) >>> 1;
+        return merge(query(2 * node, l, mid, ql, qr), query(2 * node + 1, mid + 1, r, ql, qr));
+    }
+
+    /** Exact product of arr[l..r], O(r - l) multiplications. */
+    public BigInteger exactProduct(int l, int r) {
+        if (l < 0 || r >= n || l > r) {
+            throw new IndexOutOfBoundsException("Range [" + l + ", " + r + "] out of bounds for length " + n);
+        }
+        BigInteger p = BigInteger.ONE;
+        for (int i = l; i <= r; i++) p = p.multiply(BigInteger.valueOf(values[i]));
+        return p;
+    }
+
+    /** Set arr[i] = value, O(log n). */
+    public void update(int i, int value) {
+        if (i < 0 || i >= n) throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + n);
+        values[i] = value;
+        update(1, 0, n - 1, i, value);
+    }
+
+    private void update(int node, int l, int r, int i, int value) {
+        if (l == r) {
+            setLeaf(node, i, value);
+            return;
+        }
+        int mid = (l + r) >>> 1;
+        if (i <= mid) update(2 * node, l, mid, i, value);
+        else update(2 * node + 1, mid + 1, r, i, value);
+        pull(node);
+    }
+
+    public static void main(String[] args) {
+        int[] nums = {2, 3, -2, 4, -1, 0, -3, 5};
+        MaxProductSegmentTree tree = new MaxProductSegmentTree(nums);
+        System.out.println("Array: " + Arrays.toString(nums));
+        System.out.println("Whole array: " + tree.whole()
+                + " (maxProductOptimal1: " + MaximumProductSubarray.maxProductOptimal1(nums) + ")");
+        System.out.println("Range [0, 2]: " + tree.query(0, 2));
+        System.out.println("Range [5, 7]: " + tree.query(5, 7));
+        tree.update(5, 2);
+        System.out.println("After arr[5] = 2: " + tree.whole());
+
+        // Past 2^53 the double is rounded, the bounds are still exact
+        int[] large = {1_000_003, 999_983, 1_000_033, 0, 7, -1_000_037, -1_000_039};
+        MaxProductSegmentTree largeTree = new MaxProductSegmentTree(large);
+        Node w = largeTree.whole();
+        System.out.println("Large factors: " + w + ", exact product " + largeTree.exactProduct(w.bestL, w.bestR));
+
+        // Random small values (products stay exact) checked against the scan
+        Random rnd = new Random(31);
+        int n = 1_000_000;
+        int[] big = new int[n];
+        for (int i = 0; i < n; i++) big[i] = rnd.nextInt(5) - 2; // -2..2, many zeros
+        long t0 = System.nanoTime();
+        MaxProductSegmentTree bigTree = new MaxProductSegmentTree(big);
+        long buildNs = System.nanoTime() - t0;
+
+        boolean ok = true;
+        for (int q = 0; q < 2000; q++) {
+            int l = rnd.nextInt(n), r = Math.min(n - 1, l + rnd.nextInt(40));
+            int[] part = Arrays.copyOfRange(big, l, r + 1);
+            Node res = bigTree.query(l, r);
+            long expected = MaximumProductSubarray.maxProductOptimal1(part);
+            ok &= (long) res.best == expected && l <= res.bestL && res.bestR <= r
+                    && bigTree.exactProduct(res.bestL, res.bestR).longValueExact() == expected;
+        }
+        System.out.println("\nn = " + n + ": parallel build " + buildNs / 1_000_000
+                + " ms, 2000 range queries and their [l, r] agree with maxProductOptimal1: " + ok);
+    }
+}
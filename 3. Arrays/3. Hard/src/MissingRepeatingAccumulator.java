@@ -0,0 +1,260 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+public class MissingRepeatingAccumulator {
+
+    // ---------------------------------------------------
+    // STREAMING MISSING / REPEATING DETECTOR
+    // ---------------------------------------------------
+    // Input: the ids 1..n with one id X repeated and one id Y missing,
+    // arriving in chunks (int[] pieces or a mapped file), never all at once.
+    //
+    // findMissingRepeatingNumbersOptimal1 needs the whole array and its
+    // n(n+1)(2n+1)/6 overflows long already at n ~ 1.7 million.
+    //
+    // State kept per accumulator, O(1) regardless of n:
+    // - count, sum (long: n * max id < 2^62)
+    // - sum of squares as 128 bits (hi, lo), unsigned carry on every add
+    // - xor of everything, and xorByBit[b] = xor of the values with bit b set
+    //   (the XOR partition, kept for every bit because the bit that splits
+    //   X and Y is only known at the end)
+    // Every field is a sum or an xor, so two accumulators merge by adding /
+    // xoring their fields: chunks can be processed in parallel.
+    //
+    // Report:
+    // - d = X ^ Y = xor ^ (1 ^ 2 ^ ... ^ n); pick its lowest set bit b
+    // - xorByBit[b] ^ (xor of 1..n with bit b set) is one of X, Y; d gives
+    //   the other; X - Y = sum - n(n+1)/2 tells which one repeats
+    // - Check: X^2 - Y^2 must equal sumSq - n(n+1)(2n+1)/6, computed with
+    //   BigInteger once at the end. A mismatch means the input was not a
+    //   permutation with exactly one id replaced.
+
+    static final int BITS = 31; // ids are positive ints
+
+    long count, sum;
+    long sqHi, sqLo;
+    int xor;
+    final int[] xorByBit = new int[BITS];
+
+    // -------------------- Ingest --------------------
+    public void accept(int v) {
+        if (v <= 0) throw new IllegalArgumentException("Ids must be positive, got " + v);
+        count++;
+        sum += v;
+        addSquare((long) v * v);
+        xor ^= v;
+        for (int m = v; m != 0; m &= m - 1) xorByBit[Integer.numberOfTrailingZeros(m)] ^= v;
+    }
+
+    private void addSquare(long sq) {
+        long lo = sqLo + sq;
+        if (Long.compareUnsigned(lo, sqLo) < 0) sqHi++;
+        sqLo = lo;
+    }
+
+    public void accept(int[] chunk, int from, int to) {
+        for (int i = from; i < to; i++) accept(chunk[i]);
+    }
+
+    public void accept(int[] chunk) {
+        accept(chunk, 0, chunk.length);
+    }
+
+    // Ints from position to limit, in the buffer's byte order. The position is not moved.
+    public void accept(ByteBuffer buf) {
+        IntBuffer ints = buf.slice().order(buf.order()).asIntBuffer();
+        for (int i = 0, n = ints.limit(); i < n; i++) accept(ints.get(i));
+    }
+
+    // -------------------- Merge --------------------
+    public MissingRepeatingAccumulator merge(MissingRepeatingAccumulator o) {
+        count += o.count;
+        sum += o.sum;
+        long lo = sqLo + o.sqLo;
+        sqHi += o.sqHi + (Long.compareUnsigned(lo, sqLo) < 0 ? 1 : 0);
+        sqLo = lo;
+        xor ^= o.xor;
+        for (int b = 0; b < BITS; b++) xorByBit[b] ^= o.xorByBit[b];
+        return this;
+    }
+
+    // Parallel over fixed-size slices of an in-memory array
+    public static MissingRepeatingAccumulator parallel(int[] arr) {
+        int slice = 1 << 20;
+        int slices = (int) (((long) arr.length + slice - 1) / slice); // long: no overflow near 2^31
+        return IntStream.range(0, slices).parallel()
+                .mapToObj(s -> {
+                    MissingRepeatingAccumulator acc = new MissingRepeatingAccumulator();
+                    int from = s * slice;
+                    acc.accept(arr, from, from + Math.min(slice, arr.length - from));
+                    return acc;
+                })
+                .reduce(MissingRepeatingAccumulator::merge)
+                .orElseGet(MissingRepeatingAccumulator::new);
+    }
+
+    // File of 4-byte ids, mapped region by region (each region <= 256 MB), regions in parallel
+    public static MissingRepeatingAccumulator ofFile(Path file, ByteOrder order) throws IOException {
+        final long region = 256L << 20;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size % 4 != 0) throw new IllegalArgumentException("File size " + size + " is not a multiple of 4");
+            int regions = (int) ((size + region - 1) / region);
+            return IntStream.range(0, regions).parallel()
+                    .mapToObj(r -> {
+                        long from = r * region, len = Math.min(region, size - from);
+                        MissingRepeatingAccumulator acc = new MissingRepeatingAccumulator();
+                        try {
+                            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, from, len);
+                            acc.accept(buf.order(order));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return acc;
+                    })
+                    .reduce(MissingRepeatingAccumulator::merge)
+                    .orElseGet(MissingRepeatingAccumulator::new);
+        }
+    }
+
+    // -------------------- Report --------------------
+    /** Repeating / missing id, or -1 / -1 for a clean permutation. */
+    public static final class Report {
+        public final long repeating, missing;
+        public final boolean consistent; // sums agree with the XOR answer
+
+        Report(long repeating, long missing, boolean consistent) {
+            this.repeating = repeating;
+            this.missing = missing;
+            this.consistent = consistent;
+        }
+
+        @Override
+        public String toString() {
+            return "repeating = " + repeating + ", missing = " + missing + (consistent ? "" : " (INCONSISTENT INPUT)");
+        }
+    }
+
+    public Report report() {
+        long n = count;
+        long diff = sum - n * (n + 1) / 2; // X - Y
+        int d = xor ^ (int) xorUpTo(n);    // X ^ Y
+        BigInteger sqDiff = sumOfSquares().subtract(expectedSumOfSquares(n)); // X^2 - Y^2
+
+        if (d == 0) {
+            boolean clean = diff == 0 && sqDiff.signum() == 0;
+            return new Report(-1, -1, clean);
+        }
+        int b = Integer.numberOfTrailingZeros(d);
+        long a = (xorByBit[b] ^ xorWithBit(n, b)) & 0xFFFFFFFFL;
+        long other = a ^ (d & 0xFFFFFFFFL);
+        long x = a - other == diff ? a : other; // repeating
+        long y = x == a ? other : a;            // missing
+        boolean consistent = x - y == diff
+                && BigInteger.valueOf(x).pow(2).subtract(BigInteger.valueOf(y).pow(2)).equals(sqDiff);
+        return new Report(x, y, consistent);
+    }
+
+    private BigInteger sumOfSquares() {
+        return BigInteger.valueOf(sqHi).shiftLeft(64).add(new BigInteger(Long.toUnsignedString(sqLo)));
+    }
+
+    private static BigInteger expectedSumOfSquares(long n) {
+        BigInteger bn = BigInteger.valueOf(n);
+        return bn.multiply(bn.add(BigInteger.ONE)).multiply(bn.shiftLeft(1).add(BigInteger.ONE))
+                .divide(BigInteger.valueOf(6));
+    }
+
+    // 0 ^ 1 ^ ... ^ n
+    static long xorUpTo(long n) {
+        switch ((int) (n & 3)) {
+            case 0:
+                return n;
+            case 1:
+                return 1;
+            case 2:
+                return n + 1;
+            default:
+                return 0;
+        }
+    }
+
+    // XOR of the numbers in [0, n] that have bit b set, O(1).
+    // They are y in [0, c) with a 1 inserted at bit b, and inserting a bit
+    // commutes with xor, so the result is insert(xorUpTo(c - 1)) plus the
+    // parity of c at bit b.
+    static int xorWithBit(long n, int b) {
+        long half = 1L << b, block = half << 1;
+        long c = (n + 1) / block * half + Math.max(0, (n + 1) % block - half);
+        if (c == 0) return 0;
+        long v = xorUpTo(c - 1);
+        long spread = ((v >>> b) << (b + 1)) | (v & (half - 1));
+        return (int) (spread ^ ((c & 1) << b));
+    }
+
+    // ---------------------------------------------------
+    // MAIN METHOD FOR TESTING
+    // ---------------------------------------------------
+    public static void main(String[] args) throws IOException {
+        int[] arr = {3, 1, 2, 5, 3};
+        MissingRepeatingAccumulator small = new MissingRepeatingAccumulator();
+        small.accept(arr);
+        int[] old = FindMissingRepeatingNum.findMissingRepeatingNumbersOptimal1(arr);
+        System.out.println("{3, 1, 2, 5, 3}: " + small.report() + " (Optimal1: " + old[0] + ", " + old[1] + ")");
+
+        // Optimal1 overflows: n(n+1)(2n+1) > Long.MAX_VALUE past n ~ 1.66M
+        int n = 3_000_000;
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) ids[i] = i + 1;
+        ids[1_234_567] = 2_999_999; // 1234568 missing, 2999999 repeated
+        old = FindMissingRepeatingNum.findMissingRepeatingNumbersOptimal1(ids);
+        System.out.println("n = " + n + ": " + parallel(ids).report()
+                + " | Optimal1: repeating = " + old[0] + ", missing = " + old[1]);
+
+        ids[1_234_567] = 1_234_568; // clean permutation
+        System.out.println("Clean permutation: " + parallel(ids).report());
+        ids[0] = 7;
+        ids[1] = 7; // two ids replaced: 1 and 2 missing
+        System.out.println("Two ids replaced: " + parallel(ids).report());
+
+        // Stream n ids through one reused buffer: memory does not grow with n
+        long big = args.length > 0 ? Long.parseLong(args[0]) : 300_000_000L;
+        int[] buf = new int[1 << 16];
+        long repeatAt = big / 3, missingId = big / 2 + 1;
+        MissingRepeatingAccumulator stream = new MissingRepeatingAccumulator();
+        long t0 = System.nanoTime();
+        for (long next = 1; next <= big; ) {
+            int len = (int) Math.min(buf.length, big - next + 1);
+            for (int i = 0; i < len; i++, next++) buf[i] = (int) (next == missingId ? repeatAt : next);
+            stream.accept(buf, 0, len);
+        }
+        long streamNs = System.nanoTime() - t0;
+        System.out.println("\nStreamed " + big + " ids in " + streamNs / 1_000_000 + " ms: " + stream.report()
+                + " (expected repeating = " + repeatAt + ", missing = " + missingId + ")");
+
+        // Mapped file, regions in parallel
+        int fileN = 20_000_000;
+        Path tmp = Files.createTempFile("ids", ".bin");
+        try {
+            ByteBuffer out = ByteBuffer.allocate(4 * fileN).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 1; i <= fileN; i++) out.putInt(i == 777 ? 19_999_999 : i);
+            Files.write(tmp, out.array());
+            t0 = System.nanoTime();
+            Report fromFile = ofFile(tmp, ByteOrder.LITTLE_ENDIAN).report();
+            long fileNs = System.nanoTime() - t0;
+            System.out.println("Mapped file of " + fileN + " ids in " + fileNs / 1_000_000 + " ms: " + fromFile);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
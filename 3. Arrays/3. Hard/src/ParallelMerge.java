@@ -0,0 +1,276 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+public class ParallelMerge {
+
+    /* ---------------------------------------------------
+       Parallel merge of two sorted arrays
+       ---------------------------------------------------
+       MergeArrays.merge is a serial tail merge and mergeGap does
+       O((m+n) log(m+n)) compare-swaps. Two extra modes:
+
+       1. Co-rank partitioned merge (needs an output / scratch buffer).
+          co-rank: for output position k, the split (i, k - i) such that the
+          first k merged elements are a[0..i) and b[0..k-i). Found by binary
+          search on i: a[i - 1] <= b[k - i] and b[k - i - 1] < a[i] (ties go to
+          a, so the merge is stable). Output is cut into equal ranges; every
+          range finds its two co-ranks and merges independently, no
+          synchronization and perfectly balanced work.
+          merge(nums1, m, nums2, n) keeps the MergeArrays signature: nums1's
+          first m elements are copied to scratch, then merged back in parallel.
+
+       2. In-place block merge (no buffer at all). nums2 is copied into the
+          tail of nums1, then the two adjacent runs are merged by rotations:
+          cut the longer run in half, binary search the matching cut in the
+          other run, rotate the middle blocks (three reversals) and recurse
+          on the two independent halves (ForkJoin above a threshold).
+          Time O(N log N), extra space O(log N) recursion only.
+    */
+    static final int MIN_PART = 1 << 16;
+    static final int PARALLEL_THRESHOLD = 1 << 15;
+    static final int SMALL = 16;
+
+    // Number of elements taken from a among the first k outputs of merge(a, b)
+    static int coRank(int k, int[] a, int m, int[] b, int n) {
+        int lo = Math.max(0, k - n), hi = Math.min(k, m);
+        while (lo < hi) {
+            int i = (lo + hi) >>> 1;   // candidate: i from a, k - i from b
+            int j = k - i;
+            if (i < m && j > 0 && b[j - 1] >= a[i]) {
+                lo = i + 1;            // a[i] must come before b[j - 1] (ties go to a): take more of a
+            } else {
+                hi = i;
+            }
+        }
+        return lo;
+    }
+
+    // Serial merge of a[i..iEnd) and b[j..jEnd) into out[k..]
+    private static void mergeRange(int[] a, int i, int iEnd, int[] b, int j, int jEnd, int[] out, int k) {
+        while (i < iEnd && j < jEnd) out[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+        if (i < iEnd) System.arraycopy(a, i, out, k, iEnd - i);
+        else if (j < jEnd) System.arraycopy(b, j, out, k, jEnd - j);
+    }
+
+    /* ---------------------------------------------------
+       Out-of-place co-rank merge: out[0..m+n) = merge(a[0..m), b[0..n))
+       Time Complexity: O((m + n) / p + p log(m + n))
+       Space Complexity: O(1) besides out
+    */
+    public static void mergeParallel(int[] a, int m, int[] b, int n, int[] out) {
+        int total = m + n;
+        int parts = Math.max(1, Math.min(total / MIN_PART, 4 * ForkJoinPool.getCommonPoolParallelism()));
+        IntStream.range(0, parts).parallel().forEach(p -> {
+            int k0 = (int) ((long) total * p / parts), k1 = (int) ((long) total * (p + 1) / parts);
+            int i0 = coRank(k0, a, m, b, n), i1 = coRank(k1, a, m, b, n);
+            mergeRange(a, i0, i1, b, k0 - i0, k1 - i1, out, k0);
+        });
+    }
+
+    // Same signature as MergeArrays.merge: result in nums1[0..m+n), m ints of scratch
+    public static void merge(int[] nums1, int m, int[] nums2, int n) {
+        int[] scratch = Arrays.copyOf(nums1, m);
+        mergeParallel(scratch, m, nums2, n, nums1);
+    }
+
+    /* ---------------------------------------------------
+       In-place block merge, no scratch buffer
+       --------------------------------------------------- */
+    public static void mergeInPlace(int[] nums1, int m, int[] nums2, int n) {
+        System.arraycopy(nums2, 0, nums1, m, n);
+        mergeAdjacent(nums1, 0, m, m + n);
+    }
+
+    // Merge sorted a[first..middle) and a[middle..last) in place
+    public static void mergeAdjacent(int[] a, int first, int middle, int last) {
+        if (first >= middle || middle >= last || a[middle - 1] <= a[middle]) return;
+        ForkJoinPool.commonPool().invoke(new BlockMerge(a, first, middle, last));
+    }
+
+    private static final class BlockMerge extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final int[] a;
+        final int first, middle, last;
+
+        BlockMerge(int[] a, int first, int middle, int last) {
+            this.a = a;
+            this.first = first;
+            this.middle = middle;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (first >= middle || middle >= last || a[middle - 1] <= a[middle]) return;
+            if (last - first < PARALLEL_THRESHOLD) {
+                mergeSerial(a, first, middle, last);
+                return;
+            }
+            long cuts = rotateCuts(a, first, middle, last);
+            int firstCut = (int) (cuts >>> 32), secondCut = (int) cuts;
+            int newMiddle = firstCut + (secondCut - middle);
+            invokeAll(new BlockMerge(a, first, firstCut, newMiddle), new BlockMerge(a, newMiddle, secondCut, last));
+        }
+    }
+
+    // Cut the longer run in half, find the matching cut in the other run and
+    // rotate the blocks between the cuts. Returns (firstCut << 32) | secondCut.
+    private static long rotateCuts(int[] a, int first, int middle, int last) {
+        int firstCut, secondCut;
+        if (middle - first > last - middle) {
+            firstCut = first + (middle - first) / 2;
+            secondCut = lowerBound(a, middle, last, a[firstCut]);
+        } else {
+            secondCut = middle + (last - middle) / 2;
+            firstCut = upperBound(a, first, middle, a[secondCut]);
+        }
+        rotate(a, firstCut, middle, secondCut);
+        return (long) firstCut << 32 | secondCut;
+    }
+
+    private static void mergeSerial(int[] a, int first, int middle, int last) {
+        while (true) {
+            if (first >= middle || middle >= last || a[middle - 1] <= a[middle]) return;
+            if (last - first <= SMALL) { // insertion of the right run
+                for (int i = middle; i < last; i++) {
+                    int v = a[i], j = i - 1;
+                    while (j >= first && a[j] > v) {
+                        a[j + 1] = a[j];
+                        j--;
+                    }
+                    a[j + 1] = v;
+                }
+                return;
+            }
+            long cuts = rotateCuts(a, first, middle, last);
+            int firstCut = (int) (cuts >>> 32), secondCut = (int) cuts;
+            int newMiddle = firstCut + (secondCut - middle);
+            // recurse on the smaller side, loop on the larger (bounded stack)
+            if (newMiddle - first < last - newMiddle) {
+                mergeSerial(a, first, firstCut, newMiddle);
+                first = newMiddle;
+                middle = secondCut;
+            } else {
+                mergeSerial(a, newMiddle, secondCut, last);
+                last = newMiddle;
+                middle = firstCut;
+            }
+        }
+    }
+
+    // First index in [lo, hi) with a[idx] >= key
+    private static int lowerBound(int[] a, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // First index in [lo, hi) with a[idx] > key
+    private static int upperBound(int[] a, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] <= key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // a[first..middle) a[middle..last) -> a[middle..last) a[first..middle)
+    private static void rotate(int[] a, int first, int middle, int last) {
+        reverse(a, first, middle - 1);
+        reverse(a, middle, last - 1);
+        reverse(a, first, last - 1);
+    }
+
+    private static void reverse(int[] a, int i, int j) {
+        while (i < j) {
+            int t = a[i];
+            a[i++] = a[j];
+            a[j--] = t;
+        }
+    }
+
+    // ---------------- Main Method ----------------
+    private static int[] sortedRandom(int len, Random rnd) {
+        int[] a = new int[len];
+        int v = Integer.MIN_VALUE / 2;
+        for (int i = 0; i < len; i++) {
+            v += rnd.nextInt(64);
+            a[i] = v;
+        }
+        return a;
+    }
+
+    public static void main(String[] args) {
+        int[] nums1 = {1, 2, 3, 0, 0, 0};
+        int[] nums2 = {2, 5, 6};
+        int[] inPlace = nums1.clone();
+        merge(nums1, 3, nums2, 3);
+        mergeInPlace(inPlace, 3, nums2, 3);
+        System.out.println("Co-rank parallel: " + Arrays.toString(nums1));
+        System.out.println("In-place block:   " + Arrays.toString(inPlace));
+
+        // Random sizes against Arrays.sort of the concatenation
+        Random rnd = new Random(47);
+        boolean ok = true;
+        for (int t = 0; t < 200; t++) {
+            int m = rnd.nextInt(300_000), n = rnd.nextInt(300_000);
+            int[] a = new int[m + n], b = new int[n];
+            for (int i = 0; i < m; i++) a[i] = rnd.nextInt(1000);
+            for (int i = 0; i < n; i++) b[i] = rnd.nextInt(1000);
+            Arrays.sort(a, 0, m);
+            Arrays.sort(b);
+            int[] expected = a.clone();
+            System.arraycopy(b, 0, expected, m, n);
+            Arrays.sort(expected);
+            int[] x = a.clone(), y = a.clone();
+            merge(x, m, b, n);
+            mergeInPlace(y, m, b, n);
+            ok &= Arrays.equals(x, expected) && Arrays.equals(y, expected);
+        }
+        System.out.println("200 random merges agree with Arrays.sort: " + ok);
+
+        // Benchmark: size per array from args[0], default 10M
+        int half = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int[] a = sortedRandom(half, rnd), b = sortedRandom(half, rnd);
+        int[] work = new int[2 * half];
+        int[] expected = new int[2 * half];
+        MergeArrays sol = new MergeArrays();
+
+        System.out.println("\nMerging two sorted arrays of " + half + " ints:");
+        long[] ns = new long[6];
+        String[] names = {"mergeBrute (sort)", "mergeBetter (temp array)", "merge (serial tail)",
+                "mergeGap (shell gaps)", "co-rank parallel", "in-place block merge"};
+        for (int v = 0; v < names.length; v++) {
+            System.arraycopy(a, 0, work, 0, half);
+            int[] second = b.clone();
+            long t0 = System.nanoTime();
+            switch (v) {
+                case 0 -> sol.mergeBrute(work, half, second, half);
+                case 1 -> sol.mergeBetter(work, half, second, half);
+                case 2 -> sol.merge(work, half, second, half);
+                case 3 -> {
+                    // gap method keeps the smallest half in nums1, the rest in nums2
+                    int[] first = Arrays.copyOf(a, half);
+                    t0 = System.nanoTime();
+                    MergeArrays.mergeGap(first, half, second, half);
+                    ns[v] = System.nanoTime() - t0;
+                    System.arraycopy(first, 0, work, 0, half);
+                    System.arraycopy(second, 0, work, half, half);
+                }
+                case 4 -> merge(work, half, second, half);
+                default -> mergeInPlace(work, half, second, half);
+            }
+            if (v != 3) ns[v] = System.nanoTime() - t0;
+            if (v == 0) System.arraycopy(work, 0, expected, 0, 2 * half);
+            System.out.printf("  %-26s %6d ms  correct: %b%n", names[v], ns[v] / 1_000_000, Arrays.equals(work, expected));
+        }
+    }
+}
@@ -0,0 +1,464 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class PrefixHashIndex {
+
+    /**
+     * Prefix counting without boxing
+     * ------------------------------
+     * subarraysWithXorKOptimal and maxLenghtOptimal keep a
+     * HashMap<Integer, Integer> of prefix values: two boxed objects and a
+     * node per distinct prefix, plus an int running sum that can overflow.
+     *
+     * - IntIntMap / LongIntMap: open addressing, linear probing, Fibonacci
+     *   hashing, load factor <= 1/2. A value of 0 means "absent", which fits
+     *   both uses here: occurrence counts (>= 1) and prefix positions stored
+     *   as position + 1.
+     * - Sums use long prefixes, so no overflow on large arrays.
+     *
+     * Multi-k batch mode: the prefix histogram is built once.
+     * - XOR: P[i] ^ P[j] == k is symmetric, so the count for k is
+     *   sum over x of cnt[x] * cnt[x ^ k] / 2 (k != 0), sum of cnt[x] choose 2 (k == 0).
+     *   Each extra k costs O(distinct prefixes), not O(n).
+     * - Longest subarray with sum k: max over x of last[x + k] - first[x],
+     *   using first / last position maps built once.
+     *
+     * Maps start small and double as they fill, so the table tracks the
+     * number of distinct prefixes, not n: 10^8 elements with 2^20 distinct
+     * prefixes need a 2^21-slot table, not one of 2^28 slots.
+     *
+     * Parallel mode: chunks count their internal pairs on local prefixes
+     * (relative to the chunk start) and return their local histograms,
+     * packed to the occupied entries.
+     * Cross-chunk pairs are combined in chunk order through prefix offsets:
+     * chunk c starts at global prefix o_c, so local value v is global o_c ^ v
+     * (or o_c + v for sums), and the partner it needs among all earlier
+     * prefixes is o_c ^ v ^ k (or o_c + v - k).
+     * The combine is serial and touches every distinct prefix of every chunk,
+     * so this mode only pays off when chunks repeat prefixes a lot (small
+     * value ranges); with mostly distinct prefixes it does strictly more
+     * work than the serial scan.
+     */
+    static final int MIN_CHUNK = 1 << 16;
+    static final int INITIAL_EXPECTED = 1 << 10;
+    static final int MAX_CAPACITY = 1 << 30;
+
+    // Power of two with room for expected keys at load 1/2, capped at MAX_CAPACITY
+    static int capacityFor(int expected) {
+        long cap = Long.highestOneBit(Math.max(4L, expected) * 2 - 1) << 1;
+        return (int) Math.min(cap, MAX_CAPACITY);
+    }
+
+    static int grownCapacity(int cap) {
+        if (cap >= MAX_CAPACITY) throw new IllegalStateException("More than " + MAX_CAPACITY / 2 + " distinct keys");
+        return cap * 2;
+    }
+
+    /** int -> int, 0 = absent. */
+    static final class IntIntMap {
+        int[] keys, vals;
+        int mask, size;
+
+        IntIntMap(int expected) {
+            int cap = capacityFor(expected);
+            keys = new int[cap];
+            vals = new int[cap];
+            mask = cap - 1;
+        }
+
+        private int slot(int key) {
+            int h = key * 0x9E3779B9;
+            int s = (h ^ (h >>> 16)) & mask;
+            while (vals[s] != 0 && keys[s] != key) s = (s + 1) & mask;
+            return s;
+        }
+
+        int get(int key) {
+            return vals[slot(key)];
+        }
+
+        void add(int key, int delta) {
+            int s = slot(key);
+            if (vals[s] == 0) {
+                keys[s] = key;
+                if (++size * 2 > keys.length) {
+                    vals[s] = delta;
+                    grow();
+                    return;
+                }
+            }
+            vals[s] += delta;
+        }
+
+        // Copy sized for the current entries (denser, fewer cache misses)
+        IntIntMap trimmed() {
+            IntIntMap t = new IntIntMap(size);
+            for (int i = 0; i < keys.length; i++) if (vals[i] != 0) t.add(keys[i], vals[i]);
+            return t;
+        }
+
+        private void grow() {
+            int[] k = keys, v = vals;
+            int cap = grownCapacity(k.length);
+            keys = new int[cap];
+            vals = new int[cap];
+            mask = keys.length - 1;
+            for (int i = 0; i < k.length; i++) {
+                if (v[i] != 0) {
+                    int s = slot(k[i]);
+                    keys[s] = k[i];
+                    vals[s] = v[i];
+                }
+            }
+        }
+    }
+
+    /** long -> int, 0 = absent. */
+    static final class LongIntMap {
+        long[] keys;
+        int[] vals;
+        int mask, size;
+
+        LongIntMap(int expected) {
+            int cap = capacityFor(expected);
+            keys = new long[cap];
+            vals = new int[cap];
+            mask = cap - 1;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            int s = (int) (h ^ (h >>> 32)) & mask;
+            while (vals[s] != 0 && keys[s] != key) s = (s + 1) & mask;
+            return s;
+        }
+
+        int get(long key) {
+            return vals[slot(key)];
+        }
+
+        void add(long key, int delta) {
+            put(key, vals[slot(key)] + delta);
+        }
+
+        void put(long key, int value) {
+            int s = slot(key);
+            if (vals[s] == 0) {
+                keys[s] = key;
+                vals[s] = value;
+                if (++size * 2 > keys.length) grow();
+                return;
+            }
+            vals[s] = value;
+        }
+
+        void putIfAbsent(long key, int value) {
+            int s = slot(key);
+            if (vals[s] == 0) {
+                keys[s] = key;
+                vals[s] = value;
+                if (++size * 2 > keys.length) grow();
+            }
+        }
+
+        LongIntMap trimmed() {
+            LongIntMap t = new LongIntMap(size);
+            for (int i = 0; i < keys.length; i++) if (vals[i] != 0) t.put(keys[i], vals[i]);
+            return t;
+        }
+
+        private void grow() {
+            long[] k = keys;
+            int[] v = vals;
+            int cap = grownCapacity(k.length);
+            keys = new long[cap];
+            vals = new int[cap];
+            mask = keys.length - 1;
+            for (int i = 0; i < k.length; i++) {
+                if (v[i] != 0) {
+                    int s = slot(k[i]);
+                    keys[s] = k[i];
+                    vals[s] = v[i];
+                }
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Single query
+    // Time Complexity: O(n), Space Complexity: O(distinct prefixes)
+    // ---------------------------------------------------------------
+
+    /** Number of subarrays with XOR k. */
+    public static long countXorK(int[] a, int k) {
+        IntIntMap seen = new IntIntMap(INITIAL_EXPECTED);
+        seen.add(0, 1);
+        int xr = 0;
+        long cnt = 0;
+        for (int x : a) {
+            xr ^= x;
+            cnt += seen.get(xr ^ k);
+            seen.add(xr, 1);
+        }
+        return cnt;
+    }
+
+    /** Number of subarrays with sum k (long prefixes). */
+    public static long countSumK(int[] a, long k) {
+        LongIntMap seen = new LongIntMap(INITIAL_EXPECTED);
+        seen.add(0, 1);
+        long sum = 0, cnt = 0;
+        for (int x : a) {
+            sum += x;
+            cnt += seen.get(sum - k);
+            seen.add(sum, 1);
+        }
+        return cnt;
+    }
+
+    /** Longest subarray with sum 0, same answer as maxLenghtOptimal. */
+    public static int maxLenZeroSum(int[] a) {
+        LongIntMap first = new LongIntMap(INITIAL_EXPECTED);
+        first.put(0, 1); // prefix position 0, stored + 1
+        long sum = 0;
+        int best = 0;
+        for (int p = 1; p <= a.length; p++) {
+            sum += a[p - 1];
+            int f = first.get(sum);
+            if (f != 0) best = Math.max(best, p - (f - 1));
+            else first.put(sum, p + 1);
+        }
+        return best;
+    }
+
+    // ---------------------------------------------------------------
+    // Multi-k batch mode
+    // ---------------------------------------------------------------
+
+    /** Histogram of all n + 1 prefix XORs, built once. */
+    static IntIntMap xorHistogram(int[] a) {
+        IntIntMap hist = new IntIntMap(INITIAL_EXPECTED);
+        hist.add(0, 1);
+        int xr = 0;
+        for (int x : a) {
+            xr ^= x;
+            hist.add(xr, 1);
+        }
+        return hist.trimmed();
+    }
+
+    // Time Complexity: O(n + q * distinct / p)
+    public static long[] countXorK(int[] a, int[] ks) {
+        IntIntMap hist = xorHistogram(a);
+        long[] out = new long[ks.length];
+        IntStream.range(0, ks.length).parallel().forEach(q -> out[q] = pairsFromHistogram(hist, ks[q]));
+        return out;
+    }
+
+    private static long pairsFromHistogram(IntIntMap hist, int k) {
+        long total = 0;
+        for (int s = 0; s < hist.keys.length; s++) {
+            long c = hist.vals[s];
+            if (c == 0) continue;
+            total += k == 0 ? c * (c - 1) : c * hist.get(hist.keys[s] ^ k);
+        }
+        return total / 2; // every unordered pair was seen from both ends
+    }
+
+    /** Longest subarray length for each sum in ks (0 when none). */
+    public static int[] longestWithSum(int[] a, long[] ks) {
+        int n = a.length;
+        LongIntMap first = new LongIntMap(INITIAL_EXPECTED), last = new LongIntMap(INITIAL_EXPECTED);
+        long sum = 0;
+        first.put(0, 1);
+        last.put(0, 1);
+        for (int p = 1; p <= n; p++) {
+            sum += a[p - 1];
+            first.putIfAbsent(sum, p + 1);
+            last.put(sum, p + 1);
+        }
+        LongIntMap firstPos = first.trimmed(), lastPos = last.trimmed();
+        int[] out = new int[ks.length];
+        IntStream.range(0, ks.length).parallel().forEach(q -> {
+            long k = ks[q];
+            int best = 0;
+            for (int s = 0; s < firstPos.keys.length; s++) {
+                if (firstPos.vals[s] == 0) continue;
+                int l = lastPos.get(firstPos.keys[s] + k);
+                if (l != 0) best = Math.max(best, l - firstPos.vals[s]);
+            }
+            out[q] = best;
+        });
+        return out;
+    }
+
+    // ---------------------------------------------------------------
+    // Parallel mode: per-chunk counts + prefix-offset histograms
+    // Time Complexity: O(n / p + sum of distinct prefixes per chunk), the second term serial
+    // ---------------------------------------------------------------
+    private static int chunkSize(int n) {
+        return Math.max(MIN_CHUNK, n / (4 * Math.max(1, Runtime.getRuntime().availableProcessors())) + 1);
+    }
+
+    public static long countXorKParallel(int[] a, int k) {
+        int n = a.length, size = chunkSize(n), chunks = (n + size - 1) / size;
+        int[][] localKeys = new int[chunks][], localCounts = new int[chunks][];
+        int[] chunkXor = new int[chunks];
+        long[] internal = new long[chunks];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * size, to = Math.min(n, from + size);
+            IntIntMap h = new IntIntMap(INITIAL_EXPECTED);
+            int xr = 0;
+            long cnt = 0;
+            for (int i = from; i < to; i++) {
+                xr ^= a[i];
+                cnt += h.get(xr ^ k);
+                h.add(xr, 1);
+            }
+            int[] keys = new int[h.size], counts = new int[h.size];
+            for (int s = 0, j = 0; s < h.keys.length; s++) {
+                if (h.vals[s] != 0) {
+                    keys[j] = h.keys[s];
+                    counts[j++] = h.vals[s];
+                }
+            }
+            localKeys[c] = keys;
+            localCounts[c] = counts;
+            chunkXor[c] = xr;
+            internal[c] = cnt;
+        });
+
+        IntIntMap global = new IntIntMap(INITIAL_EXPECTED);
+        global.add(0, 1);
+        long total = 0;
+        int offset = 0;
+        for (int c = 0; c < chunks; c++) {
+            int[] keys = localKeys[c], counts = localCounts[c];
+            total += internal[c];
+            for (int j = 0; j < keys.length; j++) total += (long) counts[j] * global.get(offset ^ keys[j] ^ k);
+            for (int j = 0; j < keys.length; j++) global.add(offset ^ keys[j], counts[j]);
+            offset ^= chunkXor[c];
+        }
+        return total;
+    }
+
+    public static long countSumKParallel(int[] a, long k) {
+        int n = a.length, size = chunkSize(n), chunks = (n + size - 1) / size;
+        long[][] localKeys = new long[chunks][];
+        int[][] localCounts = new int[chunks][];
+        long[] chunkSum = new long[chunks];
+        long[] internal = new long[chunks];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * size, to = Math.min(n, from + size);
+            LongIntMap h = new LongIntMap(INITIAL_EXPECTED);
+            long sum = 0, cnt = 0;
+            for (int i = from; i < to; i++) {
+                sum += a[i];
+                cnt += h.get(sum - k);
+                h.add(sum, 1);
+            }
+            long[] keys = new long[h.size];
+            int[] counts = new int[h.size];
+            for (int s = 0, j = 0; s < h.keys.length; s++) {
+                if (h.vals[s] != 0) {
+                    keys[j] = h.keys[s];
+                    counts[j++] = h.vals[s];
+                }
+            }
+            localKeys[c] = keys;
+            localCounts[c] = counts;
+            chunkSum[c] = sum;
+            internal[c] = cnt;
+        });
+
+        LongIntMap global = new LongIntMap(INITIAL_EXPECTED);
+        global.add(0, 1);
+        long total = 0, offset = 0;
+        for (int c = 0; c < chunks; c++) {
+            long[] keys = localKeys[c];
+            int[] counts = localCounts[c];
+            total += internal[c];
+            for (int j = 0; j < keys.length; j++) total += (long) counts[j] * global.get(offset + keys[j] - k);
+            for (int j = 0; j < keys.length; j++) global.add(offset + keys[j], counts[j]);
+            offset += chunkSum[c];
+        }
+        return total;
+    }
+
+    public static void main(String[] args) {
+        int[] arr = {4, 2, 2, 6, 4};
+        System.out.println("XOR k = 6: " + countXorK(arr, 6) + " (optimal: " + NumOfSubarrayXORK.subarraysWithXorKOptimal(arr, 6)
+                + "), batch k = {6, 4, 0}: " + Arrays.toString(countXorK(arr, new int[]{6, 4, 0})));
+        int[] zero = {15, -2, 2, -8, 1, 7, 10, 23};
+        System.out.println("Longest zero-sum: " + maxLenZeroSum(zero) + " (optimal: "
+                + new LargestSubarraySumZero().maxLenghtOptimal(zero) + "), sums {0, 10, 33}: "
+                + Arrays.toString(longestWithSum(zero, new long[]{0, 10, 33})));
+
+        // Small random checks of every mode
+        Random rnd = new Random(48);
+        boolean ok = true;
+        for (int t = 0; t < 50; t++) {
+            int n = 1 + rnd.nextInt(300_000);
+            int[] a = new int[n];
+            for (int i = 0; i < n; i++) a[i] = rnd.nextInt(64) - 32;
+            int k = rnd.nextInt(64);
+            long xorK = countXorK(a, k);
+            ok &= xorK == NumOfSubarrayXORK.subarraysWithXorKOptimal(a, k) || xorK > Integer.MAX_VALUE;
+            ok &= xorK == countXorKParallel(a, k) && xorK == countXorK(a, new int[]{k})[0];
+            ok &= countSumK(a, k) == countSumKParallel(a, k);
+            ok &= maxLenZeroSum(a) == longestWithSum(a, new long[]{0})[0];
+        }
+        System.out.println("50 random arrays, all modes agree: " + ok);
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int[] big = new int[n];
+        for (int i = 0; i < n; i++) big[i] = rnd.nextInt(1 << 20);
+
+        long t0 = System.nanoTime();
+        int oldCount = NumOfSubarrayXORK.subarraysWithXorKOptimal(big, 12345);
+        long oldNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        long newCount = countXorK(big, 12345);
+        long newNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        long parCount = countXorKParallel(big, 12345);
+        long parNs = System.nanoTime() - t0;
+
+        // Few distinct prefixes per chunk: the combine is cheap, chunks dominate
+        int[] narrow = new int[n];
+        for (int i = 0; i < n; i++) narrow[i] = rnd.nextInt(256);
+        t0 = System.nanoTime();
+        long narrowCount = countXorK(narrow, 77);
+        long narrowNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        long narrowPar = countXorKParallel(narrow, 77);
+        long narrowParNs = System.nanoTime() - t0;
+
+        int[] ks = new int[100];
+        for (int q = 0; q < ks.length; q++) ks[q] = rnd.nextInt(1 << 20);
+        t0 = System.nanoTime();
+        long[] batch = countXorK(big, ks);
+        long batchNs = System.nanoTime() - t0;
+        boolean batchOk = batch[0] == countXorK(big, ks[0]);
+
+        int[] signed = new int[n];
+        for (int i = 0; i < n; i++) signed[i] = rnd.nextInt(2001) - 1000;
+        t0 = System.nanoTime();
+        int oldLen = new LargestSubarraySumZero().maxLenghtOptimal(signed);
+        long oldLenNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        int newLen = maxLenZeroSum(signed);
+        long newLenNs = System.nanoTime() - t0;
+
+        System.out.println("\nn = " + n);
+        System.out.println("subarraysWithXorKOptimal (HashMap): " + oldCount + " in " + oldNs / 1_000_000 + " ms");
+        System.out.println("countXorK (IntIntMap)             : " + newCount + " in " + newNs / 1_000_000 + " ms");
+        System.out.println("countXorKParallel                 : " + parCount + " in " + parNs / 1_000_000 + " ms");
+        System.out.println("values < 256, serial / parallel   : " + narrowCount + " in " + narrowNs / 1_000_000 + " ms / "
+                + narrowPar + " in " + narrowParNs / 1_000_000 + " ms (" + Runtime.getRuntime().availableProcessors() + " cores)");
+        System.out.println("100 k values, one histogram       : " + batchNs / 1_000_000 + " ms (first k agrees: " + batchOk + ")");
+        System.out.println("maxLenghtOptimal (HashMap)        : " + oldLen + " in " + oldLenNs / 1_000_000 + " ms");
+        System.out.println("maxLenZeroSum (LongIntMap)        : " + newLen + " in " + newLenNs / 1_000_000 + " ms");
+    }
+}